@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import de.dcoding.json.JSON;
+import de.dcoding.parsers.ParserException;
+
+/**
+ * Benchmark of the {@link JSONStructuralIndexer} where it is used: finding the elements of a root
+ * array before {@link JSON#decodeParallel(byte[], int)} parses them. The boundaries found in the
+ * UTF-8 encoded bytes by the structural index are compared with those found by the character scan
+ * used for strings, then the parallel decoding of the bytes is compared with the sequential one.
+ * <p>
+ * Run with {@code gradle benchmark}. The median of the rounds following the warm-up is reported.
+ *
+ * @since  1.1
+ */
+public class StructuralIndexBenchmark {
+  private static final int WARM_UP_ROUNDS = 5;
+  private static final int ROUNDS = 15;
+
+  public static void main(String[] args) throws ParserException {
+    int parallelism = Runtime.getRuntime().availableProcessors();
+
+    run("records", createRecords(200000, 1), parallelism);
+    run("long strings", createRecords(50000, 40), parallelism);
+    run("numbers", createNumbers(2000000), parallelism);
+  }
+
+  private static void run(String name, String text, int parallelism) throws ParserException {
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    if (ParallelArrayParser.findBoundaries(text).length != ParallelArrayParser.findBoundaries(bytes).length) {
+      throw new IllegalStateException("Different elements found in " + name);
+    }
+
+    System.out.printf("%s, %.1f MB%n", name, bytes.length / 1e6);
+    report("  character scan of the string", bytes.length, () -> ParallelArrayParser.findBoundaries(text).length);
+    report("  structural index of the bytes", bytes.length, () -> ParallelArrayParser.findBoundaries(bytes).length);
+    report("  decode the bytes", bytes.length, () -> JSON.decode(bytes).hashCode());
+    report(String.format("  decode the bytes in parallel with %d threads", parallelism), bytes.length,
+        () -> JSON.decodeParallel(bytes, parallelism).hashCode());
+  }
+
+  private static void report(String name, int length, Task task) throws ParserException {
+    long[] times = new long[ROUNDS];
+    int result = 0;
+
+    for (int i = -WARM_UP_ROUNDS; i < ROUNDS; i++) {
+      long start = System.nanoTime();
+      result += task.run();
+      if (i >= 0) {
+        times[i] = System.nanoTime() - start;
+      }
+    }
+
+    Arrays.sort(times);
+    long median = times[ROUNDS / 2];
+    System.out.printf("%-50s %8.2f ms %8.0f MB/s (%d)%n", name, median / 1e6, length / (median / 1e3), result);
+  }
+
+  private static String createRecords(int count, int words) {
+    Random random = new Random(count);
+    StringBuilder builder = new StringBuilder("[");
+
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append("{\"id\": ").append(i)
+          .append(", \"name\": \"user \\\"").append(random.nextInt()).append("\\\" b\u00E4r\"")
+          .append(", \"tags\": [\"a\", \"b\", \"c\"]")
+          .append(", \"score\": ").append(random.nextDouble())
+          .append(", \"text\": \"");
+      for (int j = 0, length = 1 + random.nextInt(words); j < length; j++) {
+        builder.append("lorem ipsum, dolor ");
+      }
+      builder.append("\"}");
+    }
+
+    return builder.append(']').toString();
+  }
+
+  private static String createNumbers(int count) {
+    Random random = new Random(count);
+    StringBuilder builder = new StringBuilder("[");
+
+    for (int i = 0; i < count; i++) {
+      builder.append((i > 0) ? "," : "").append(random.nextInt(1000000));
+    }
+
+    return builder.append(']').toString();
+  }
+
+  private interface Task {
+    int run() throws ParserException;
+  }
+}
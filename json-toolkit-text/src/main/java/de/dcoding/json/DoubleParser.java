@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json;
+
+import java.math.BigInteger;
+
+/**
+ * Correctly rounded conversion of decimal numbers in the JSON grammar to doubles. Numbers with up to
+ * 19 significant digits are converted by the fast path of Clinger if the result is exact and by the
+ * algorithm of Eisel and Lemire otherwise, both without allocation. All other numbers are converted by
+ * {@link Double#parseDouble(String)}.
+ * 
+ * @since  1.1
+ */
+final class DoubleParser {
+  private static final int SMALLEST_POWER_OF_TEN = -342;
+  private static final int LARGEST_POWER_OF_TEN = 308;
+  private static final int MAXIMUM_DIGITS = 19;
+  private static final int MANTISSA_EXPLICIT_BITS = 52;
+  private static final int MINIMUM_EXPONENT = -1023;
+  private static final int INFINITE_POWER = 0x7FF;
+  private static final int MINIMUM_EXPONENT_ROUND_TO_EVEN = -4;
+  private static final int MAXIMUM_EXPONENT_ROUND_TO_EVEN = 23;
+  private static final long MAXIMUM_EXACT_INTEGER = 1L << 53;
+  private static final double[] EXACT_POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  private static final long[] POWERS_OF_FIVE = computePowersOfFive();
+
+  private DoubleParser() {
+  }
+
+  /**
+   * Computes the 128 bit approximations of the powers of five from 5^-342 to 5^308, stored as pairs
+   * of the high and the low 64 bits. Positive powers are truncated, negative powers are rounded up.
+   */
+  private static long[] computePowersOfFive() {
+    long[] table = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+    BigInteger lowerLimit = BigInteger.ONE.shiftLeft(127);
+    BigInteger upperLimit = BigInteger.ONE.shiftLeft(128);
+
+    for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+      BigInteger value;
+
+      if (q < 0) {
+        BigInteger power = BigInteger.valueOf(5).pow(-q);
+        int z = power.subtract(BigInteger.ONE).bitLength();
+        int b = (q >= -27) ? (z + 127) : (2 * z + 128);
+        value = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+      } else {
+        value = BigInteger.valueOf(5).pow(q);
+        while (value.compareTo(lowerLimit) < 0) {
+          value = value.shiftLeft(1);
+        }
+      }
+
+      while (value.compareTo(upperLimit) >= 0) {
+        value = value.shiftRight(1);
+      }
+
+      int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+      table[index] = value.shiftRight(64).longValue();
+      table[index + 1] = value.longValue();
+    }
+
+    return table;
+  }
+
+  /**
+   * Converts a number in the JSON grammar to the nearest double.
+   * 
+   * @param value The textual representation of the number
+   * @return The nearest double value
+   */
+  static double parse(String value) {
+    int length = value.length();
+    int index = 0;
+    boolean negative = (value.charAt(0) == '-');
+    if (negative) {
+      index++;
+    }
+
+    long significand = 0;
+    int digits = 0;
+    int exponent = 0;
+    char character = 0;
+
+    while ((index < length) && isDigit(character = value.charAt(index))) {
+      significand = appendDigit(significand, character);
+      if (significand != 0) {
+        digits++;
+      }
+      index++;
+    }
+
+    if ((index < length) && (character == '.')) {
+      index++;
+      while ((index < length) && isDigit(character = value.charAt(index))) {
+        significand = appendDigit(significand, character);
+        if (significand != 0) {
+          digits++;
+        }
+        exponent--;
+        index++;
+      }
+    }
+
+    if (digits > MAXIMUM_DIGITS) {
+      return Double.parseDouble(value);
+    }
+
+    if ((index < length) && ((character == 'e') || (character == 'E'))) {
+      index++;
+      boolean negativeExponent = (value.charAt(index) == '-');
+      if (negativeExponent || (value.charAt(index) == '+')) {
+        index++;
+      }
+
+      int explicitExponent = 0;
+      while (index < length) {
+        if (explicitExponent < 100000) {
+          explicitExponent = explicitExponent * 10 + (value.charAt(index) - '0');
+        }
+        index++;
+      }
+      exponent += negativeExponent ? -explicitExponent : explicitExponent;
+    }
+
+    double result = toDouble(significand, exponent, value);
+    return negative ? -result : result;
+  }
+
+  private static long appendDigit(long significand, char character) {
+    // the significand is unsigned, as 19 digits exceed the range of a long. Digits beyond the maximum
+    // are only counted, such numbers are converted by the JDK.
+    return (Long.compareUnsigned(significand, 1000000000000000000L) < 0) ? (significand * 10 + (character - '0')) : significand;
+  }
+
+  private static double toDouble(long significand, int exponent, String value) {
+    if ((significand == 0) || (exponent < SMALLEST_POWER_OF_TEN)) {
+      return 0.0;
+    }
+
+    if (exponent > LARGEST_POWER_OF_TEN) {
+      return Double.POSITIVE_INFINITY;
+    }
+
+    if ((exponent >= -22) && (exponent <= 22) && (Long.compareUnsigned(significand, MAXIMUM_EXACT_INTEGER) <= 0)) {
+      // both operands are exact, so a single correctly rounded operation results in the nearest double
+      double result = significand;
+      return (exponent < 0) ? (result / EXACT_POWERS_OF_TEN[-exponent]) : (result * EXACT_POWERS_OF_TEN[exponent]);
+    }
+
+    long bits = computeBits(significand, exponent);
+    if (bits < 0) {
+      return Double.parseDouble(value);
+    }
+
+    return Double.longBitsToDouble(bits);
+  }
+
+  /**
+   * Computes the bits of the nearest double of significand * 10^exponent by the algorithm of
+   * Eisel and Lemire, as published in "Number Parsing at a Gigabyte per Second".
+   * 
+   * @return The bits of the positive double or {@code -1} if the result cannot be determined
+   */
+  private static long computeBits(long significand, int exponent) {
+    int leadingZeros = Long.numberOfLeadingZeros(significand);
+    long normalized = significand << leadingZeros;
+
+    int index = 2 * (exponent - SMALLEST_POWER_OF_TEN);
+    long high = multiplyHigh(normalized, POWERS_OF_FIVE[index]);
+    long low = normalized * POWERS_OF_FIVE[index];
+
+    long precisionMask = 0xFFFFFFFFFFFFFFFFL >>> (MANTISSA_EXPLICIT_BITS + 3);
+    if ((high & precisionMask) == precisionMask) {
+      // the truncated bits might affect the result, so the lower 64 bits of the power are included
+      long secondHigh = multiplyHigh(normalized, POWERS_OF_FIVE[index + 1]);
+      long sum = low + secondHigh;
+      if (Long.compareUnsigned(secondHigh, sum) > 0) {
+        high++;
+      }
+      low = sum;
+
+      if ((low == -1L) && ((exponent < -27) || (exponent > 55))) {
+        return -1;
+      }
+    }
+
+    int upperBit = (int)(high >>> 63);
+    int shift = upperBit + 64 - MANTISSA_EXPLICIT_BITS - 3;
+    long mantissa = high >>> shift;
+    int power = (int)(((152170L + 65536L) * exponent) >> 16) + 63 + upperBit - leadingZeros - MINIMUM_EXPONENT;
+
+    if (power <= 0) {
+      // subnormal number
+      if ((-power + 1) >= 64) {
+        return 0;
+      }
+      mantissa >>>= -power + 1;
+      mantissa += (mantissa & 1);
+      mantissa >>>= 1;
+      power = (mantissa < (1L << MANTISSA_EXPLICIT_BITS)) ? 0 : 1;
+      return ((long)power << MANTISSA_EXPLICIT_BITS) | (mantissa & ((1L << MANTISSA_EXPLICIT_BITS) - 1));
+    }
+
+    if ((Long.compareUnsigned(low, 1) <= 0) && (exponent >= MINIMUM_EXPONENT_ROUND_TO_EVEN)
+        && (exponent <= MAXIMUM_EXPONENT_ROUND_TO_EVEN) && ((mantissa & 3) == 1)) {
+      // exactly halfway between two doubles, round to even instead of up
+      if ((mantissa << shift) == high) {
+        mantissa &= ~1L;
+      }
+    }
+
+    mantissa += (mantissa & 1);
+    mantissa >>>= 1;
+    if (mantissa >= (2L << MANTISSA_EXPLICIT_BITS)) {
+      mantissa = 1L << MANTISSA_EXPLICIT_BITS;
+      power++;
+    }
+    mantissa &= ~(1L << MANTISSA_EXPLICIT_BITS);
+
+    if (power >= INFINITE_POWER) {
+      return (long)INFINITE_POWER << MANTISSA_EXPLICIT_BITS;
+    }
+
+    return ((long)power << MANTISSA_EXPLICIT_BITS) | mantissa;
+  }
+
+  /**
+   * Returns the upper 64 bits of the unsigned 128 bit product of two unsigned 64 bit values.
+   */
+  private static long multiplyHigh(long x, long y) {
+    long x0 = x & 0xFFFFFFFFL;
+    long x1 = x >>> 32;
+    long y0 = y & 0xFFFFFFFFL;
+    long y1 = y >>> 32;
+
+    long p00 = x0 * y0;
+    long p10 = x1 * y0 + (p00 >>> 32);
+    long p01 = x0 * y1 + (p10 & 0xFFFFFFFFL);
+
+    return x1 * y1 + (p10 >>> 32) + (p01 >>> 32);
+  }
+
+  private static boolean isDigit(char character) {
+    return ((character >= '0') && (character <= '9'));
+  }
+}
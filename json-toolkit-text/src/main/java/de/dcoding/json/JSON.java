@@ -16,6 +16,15 @@
 
 package de.dcoding.json;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import de.dcoding.json.parsers.JSONEncoding;
+import de.dcoding.json.parsers.JSONHandler;
 import de.dcoding.json.parsers.JSONLLParser;
 import de.dcoding.parsers.Parser;
 import de.dcoding.parsers.ParserException;
@@ -26,22 +35,30 @@ import de.dcoding.parsers.ParserException;
  * @since  1.0
  */
 public class JSON {
-  private static Parser<JSONValue> parser = null;
-  private static JSONFormatter formatter = null;
+  private static volatile Parser<JSONValue> parser = null;
+  private static volatile JSONFormatter formatter = null;
 
   /**
    * Returns a default {@link Parser} implementation for parsing {@link JSONValue}s.
    * The instance can be set with {@link #setParser(Parser)}. If not parser is set
-   * an instance of {@link JSONLLParser} is initialized and used.
+   * an instance of {@link JSONLLParser} is initialized and used. The initialization is
+   * thread safe and the {@link JSONLLParser} can be shared by concurrently decoding threads.
    * 
    * @return The default parser
    */
   public static Parser<JSONValue> getParser() {
-    if (parser == null) {
-      parser = new JSONLLParser();
+    Parser<JSONValue> current = parser;
+    if (current == null) {
+      synchronized (JSON.class) {
+        current = parser;
+        if (current == null) {
+          current = new JSONLLParser();
+          parser = current;
+        }
+      }
     }
 
-    return parser;
+    return current;
   }
 
   /**
@@ -57,16 +74,24 @@ public class JSON {
   /**
    * Returns the default formatter. If no default formatter is configured via
    * {@link #setFormatter(JSONFormatter)} a new {@link JSONFormatter} instance with
-   * default settings is initialized.
+   * default settings is initialized. The initialization is thread safe and the {@link JSONFormatter}
+   * can be shared by concurrently encoding threads.
    * 
    * @return The default formatter
    */
   public static JSONFormatter getFormatter() {
-    if (formatter == null) {
-      formatter = new JSONFormatter();
+    JSONFormatter current = formatter;
+    if (current == null) {
+      synchronized (JSON.class) {
+        current = formatter;
+        if (current == null) {
+          current = new JSONFormatter();
+          formatter = current;
+        }
+      }
     }
 
-    return formatter;
+    return current;
   }
 
   /**
@@ -110,6 +135,228 @@ public class JSON {
     return value;
   }
 
+  /**
+   * Converts a textual representation of a JSON value read from the specified {@link Reader}
+   * into an instance of {@link JSONValue} using the default parser.
+   * 
+   * @since 1.1
+   * @param reader The reader providing the textual representation
+   * @return The parsed {@link JSONValue}
+   * @throws IOException Exception while reading from the reader
+   * @throws ParserException Exception while parsing the textual representation
+   */
+  public static JSONValue decode(Reader reader) throws IOException, ParserException {
+    Parser<JSONValue> parser = getParser();
+    return decode(reader, parser);
+  }
+
+  /**
+   * Converts a textual representation of a JSON value read from the specified {@link Reader}
+   * into an instance of {@link JSONValue} using the specified {@link Parser} implementation.
+   * 
+   * @since 1.1
+   * @param reader The reader providing the textual representation
+   * @param parser The parser to use
+   * @return The parsed {@link JSONValue}
+   * @throws IOException Exception while reading from the reader
+   * @throws ParserException Exception while parsing the textual representation
+   */
+  public static JSONValue decode(Reader reader, Parser<JSONValue> parser) throws IOException, ParserException {
+    if (parser == null) {
+      throw new IllegalArgumentException();
+    }
+
+    JSONValue value = parser.parse(reader);
+    return value;
+  }
+
+  /**
+   * Converts a binary JSON text read from the specified {@link InputStream} into an instance
+   * of {@link JSONValue} using the default parser. The encoding (UTF-8, UTF-16 or UTF-32) is
+   * detected from the leading bytes.
+   * 
+   * @since 1.1
+   * @param stream The stream providing the binary JSON text
+   * @return The parsed {@link JSONValue}
+   * @throws IOException Exception while reading from the stream or if the text is not properly encoded
+   * @throws ParserException Exception while parsing the textual representation
+   */
+  public static JSONValue decode(InputStream stream) throws IOException, ParserException {
+    Reader reader = JSONEncoding.newReader(stream);
+    return decode(reader);
+  }
+
+  /**
+   * Converts a binary JSON text into an instance of {@link JSONValue} using the default parser.
+   * The encoding (UTF-8, UTF-16 or UTF-32) is detected from the leading bytes.
+   * 
+   * @since 1.1
+   * @param bytes The binary JSON text
+   * @return The parsed {@link JSONValue}
+   * @throws ParserException Exception while parsing the textual representation or if the text is
+   *         not properly encoded
+   */
+  public static JSONValue decode(byte[] bytes) throws ParserException {
+    if (bytes == null) {
+      return decode((String)null);
+    }
+
+    return decode(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Converts a binary JSON text in the remaining bytes of the specified {@link ByteBuffer} into
+   * an instance of {@link JSONValue} using the default parser. The encoding (UTF-8, UTF-16 or UTF-32)
+   * is detected from the leading bytes. The position of the buffer is not changed. If the default
+   * parser is a {@link JSONLLParser}, UTF-8 encoded texts are parsed without decoding them first.
+   * 
+   * @since 1.1
+   * @param buffer The buffer containing the binary JSON text
+   * @return The parsed {@link JSONValue}
+   * @throws ParserException Exception while parsing the textual representation or if the text is
+   *         not properly encoded
+   */
+  public static JSONValue decode(ByteBuffer buffer) throws ParserException {
+    Parser<JSONValue> parser = getParser();
+    if (parser instanceof JSONLLParser) {
+      return ((JSONLLParser)parser).parse(buffer);
+    }
+
+    Reader reader = JSONEncoding.newReader(buffer);
+
+    try {
+      return decode(reader);
+    } catch (IOException e) {
+      throw new ParserException(e);
+    }
+  }
+
+  /**
+   * Converts the binary JSON text in the specified file into an instance of {@link JSONValue} using
+   * the default parser. The encoding (UTF-8, UTF-16 or UTF-32) is detected from the leading bytes.
+   * If the default parser is a {@link JSONLLParser}, UTF-8 encoded files are memory mapped and parsed
+   * without copying their content to the heap first.
+   * 
+   * @since 1.1
+   * @param path The path of the file
+   * @return The parsed {@link JSONValue}
+   * @throws IOException Exception while reading the file or if the text is not properly encoded
+   * @throws ParserException Exception while parsing the textual representation
+   */
+  public static JSONValue decode(Path path) throws IOException, ParserException {
+    Parser<JSONValue> parser = getParser();
+    if (parser instanceof JSONLLParser) {
+      return ((JSONLLParser)parser).parse(path);
+    }
+
+    try (InputStream stream = Files.newInputStream(path)) {
+      return decode(stream);
+    }
+  }
+
+  /**
+   * Converts a textual representation of a JSON value into an instance of {@link JSONValue}, using
+   * the specified number of threads if its root is an array, see {@link #decodeParallel(byte[], int)}.
+   * The characters are parsed directly, see {@link JSONLLParser#parseParallel(String, int)}.
+   * 
+   * @since 1.1
+   * @param text The textual representation
+   * @param parallelism The number of threads, at least {@code 1}
+   * @return The parsed {@link JSONValue}
+   * @throws ParserException Exception while parsing the textual representation
+   */
+  public static JSONValue decodeParallel(String text, int parallelism) throws ParserException {
+    return getHandlerParser().parseParallel(text, parallelism);
+  }
+
+  /**
+   * Converts a binary JSON text into an instance of {@link JSONValue}, using the specified number of
+   * threads if its root is an array. Ranges of the elements are parsed independently and joined in
+   * their order, see {@link JSONLLParser#parseParallel(byte[], int)}. The default parser is used if
+   * it is a {@link JSONLLParser}, otherwise a new {@link JSONLLParser} is used.
+   * 
+   * @since 1.1
+   * @param bytes The binary JSON text
+   * @param parallelism The number of threads, at least {@code 1}
+   * @return The parsed {@link JSONValue}
+   * @throws ParserException Exception while parsing the textual representation or if the text is
+   *         not properly encoded
+   */
+  public static JSONValue decodeParallel(byte[] bytes, int parallelism) throws ParserException {
+    return getHandlerParser().parseParallel(bytes, parallelism);
+  }
+
+  /**
+   * Converts a textual representation of a JSON value into an instance of {@link JSONValue} whose
+   * objects and arrays are read lazily. Only the structure of the text is checked up front, members
+   * and elements are validated and converted on the first access of their object or array, see
+   * {@link JSONLLParser#parseLazily(String)}. The default parser is used if it is a
+   * {@link JSONLLParser}, otherwise a new {@link JSONLLParser} is used.
+   * 
+   * @since 1.1
+   * @param text The textual representation
+   * @return The parsed {@link JSONValue}
+   * @throws ParserException Exception while parsing the textual representation
+   */
+  public static JSONValue decodeLazily(String text) throws ParserException {
+    return getHandlerParser().parseLazily(text);
+  }
+
+  /**
+   * Parses a textual representation of a JSON value and reports its structure and values to the
+   * specified {@link JSONHandler} without building {@link JSONValue} instances. The default parser
+   * is used if it is a {@link JSONLLParser}, otherwise a new {@link JSONLLParser} is used.
+   * 
+   * @since 1.1
+   * @param text The textual representation
+   * @param handler The handler receiving the callbacks
+   * @throws ParserException Exception while parsing the textual representation
+   */
+  public static void parse(String text, JSONHandler handler) throws ParserException {
+    getHandlerParser().parse(text, handler);
+  }
+
+  /**
+   * Parses a textual representation of a JSON value read from the specified {@link Reader} and
+   * reports its structure and values to the specified {@link JSONHandler} without building
+   * {@link JSONValue} instances. The default parser is used if it is a {@link JSONLLParser},
+   * otherwise a new {@link JSONLLParser} is used.
+   * 
+   * @since 1.1
+   * @param reader The reader providing the textual representation
+   * @param handler The handler receiving the callbacks
+   * @throws IOException Exception while reading from the reader
+   * @throws ParserException Exception while parsing the textual representation
+   */
+  public static void parse(Reader reader, JSONHandler handler) throws IOException, ParserException {
+    getHandlerParser().parse(reader, handler);
+  }
+
+  /**
+   * Parses a binary JSON text read from the specified {@link InputStream} and reports its structure
+   * and values to the specified {@link JSONHandler} without building {@link JSONValue} instances.
+   * The encoding (UTF-8, UTF-16 or UTF-32) is detected from the leading bytes.
+   * 
+   * @since 1.1
+   * @param stream The stream providing the binary JSON text
+   * @param handler The handler receiving the callbacks
+   * @throws IOException Exception while reading from the stream or if the text is not properly encoded
+   * @throws ParserException Exception while parsing the textual representation
+   */
+  public static void parse(InputStream stream, JSONHandler handler) throws IOException, ParserException {
+    Reader reader = JSONEncoding.newReader(stream);
+    parse(reader, handler);
+  }
+
+  private static JSONLLParser getHandlerParser() {
+    Parser<JSONValue> parser = getParser();
+    if (parser instanceof JSONLLParser) {
+      return (JSONLLParser)parser;
+    }
+
+    return new JSONLLParser();
+  }
+
   /**
    * Converts an instance of a {@link JSONValue} as text using the default {@link JSONFormatter} instance.
    * To initialize a the default formatter {@link #setFormatter(JSONFormatter)} can be used.
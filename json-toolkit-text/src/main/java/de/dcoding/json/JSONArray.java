@@ -48,6 +48,17 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
     addAll(values);
   }
 
+  /**
+   * Returns the list backing this array. All operations of the array are delegated to it.
+   * Subclasses may override it to provide the values lazily.
+   * 
+   * @since 1.1
+   * @return The list of the values
+   */
+  protected List<JSONValue> getValues() {
+    return values;
+  }
+
   /**
    * Inserts the specified element at the specified position.
    * 
@@ -56,7 +67,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public void add(int index, JSONValue element) {
-    values.add(index, element);
+    getValues().add(index, element);
   }
 
   /**
@@ -66,7 +77,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public boolean add(JSONValue e) {
-    return values.add(e);
+    return getValues().add(e);
   }
 
   /**
@@ -77,7 +88,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public boolean addAll(Collection<? extends JSONValue> c) {
-    return values.addAll(c);
+    return getValues().addAll(c);
   }
 
   /**
@@ -89,7 +100,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public boolean addAll(int index, Collection<? extends JSONValue> c) {
-    return values.addAll(index, c);
+    return getValues().addAll(index, c);
   }
 
   /**
@@ -97,7 +108,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public void clear() {
-    values.clear();
+    getValues().clear();
   }
 
   /**
@@ -107,7 +118,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public boolean contains(Object o) {
-    return values.contains(o);
+    return getValues().contains(o);
   }
 
   /**
@@ -118,7 +129,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public boolean containsAll(Collection<?> c) {
-    return values.containsAll(c);
+    return getValues().containsAll(c);
   }
 
   /**
@@ -130,7 +141,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public JSONValue get(int index) {
-    return values.get(index);
+    return getValues().get(index);
   }
   
   /**
@@ -144,7 +155,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @SuppressWarnings("unchecked")
   public <T extends JSONValue> T getAs(int index) {
-    return (T) values.get(index);
+    return (T) getValues().get(index);
   }
 
   /**
@@ -157,7 +168,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public int indexOf(Object o) {
-    return values.indexOf(o);
+    return getValues().indexOf(o);
   }
 
   /**
@@ -167,7 +178,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public boolean isEmpty() {
-    return values.isEmpty();
+    return getValues().isEmpty();
   }
 
   /**
@@ -177,7 +188,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public Iterator<JSONValue> iterator() {
-    return values.iterator();
+    return getValues().iterator();
   }
 
   /**
@@ -190,7 +201,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public int lastIndexOf(Object o) {
-    return values.lastIndexOf(o);
+    return getValues().lastIndexOf(o);
   }
 
   /**
@@ -200,7 +211,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public ListIterator<JSONValue> listIterator() {
-    return values.listIterator();
+    return getValues().listIterator();
   }
 
   /**
@@ -213,7 +224,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public ListIterator<JSONValue> listIterator(int index) {
-    return values.listIterator(index);
+    return getValues().listIterator(index);
   }
 
   /**
@@ -225,7 +236,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public JSONValue remove(int index) {
-    return values.remove(index);
+    return getValues().remove(index);
   }
 
   /**
@@ -238,7 +249,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public boolean remove(Object o) {
-    return values.remove(o);
+    return getValues().remove(o);
   }
 
   /**
@@ -251,7 +262,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public boolean removeAll(Collection<?> c) {
-    return values.removeAll(c);
+    return getValues().removeAll(c);
   }
 
   /**
@@ -264,7 +275,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public boolean retainAll(Collection<?> c) {
-    return values.retainAll(c);
+    return getValues().retainAll(c);
   }
 
   /**
@@ -276,7 +287,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public JSONValue set(int index, JSONValue element) {
-    return values.set(index, element);
+    return getValues().set(index, element);
   }
 
   /**
@@ -286,7 +297,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public int size() {
-    return values.size();
+    return getValues().size();
   }
 
   /**
@@ -301,7 +312,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public List<JSONValue> subList(int fromIndex, int toIndex) {
-    return values.subList(fromIndex, toIndex);
+    return getValues().subList(fromIndex, toIndex);
   }
 
   /**
@@ -312,7 +323,7 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public Object[] toArray() {
-    return values.toArray();
+    return getValues().toArray();
   }
 
   /**
@@ -327,6 +338,6 @@ public class JSONArray extends JSONValue implements List<JSONValue> {
    */
   @Override
   public <T> T[] toArray(T[] a) {
-    return values.toArray(a);
+    return getValues().toArray(a);
   }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Escaping of string values and member names for their JSON conformant textual representation.
+ * The characters are scanned for the next character requiring an escape sequence, and the runs in
+ * between are appended in bulk. Strings without such characters are thereby copied as a whole.
+ * 
+ * @since  1.1
+ */
+final class JSONEscaper {
+  private static final char[] HEX_DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+
+  /**
+   * Escape sequences of the ASCII characters, {@code null} for characters written as they are
+   */
+  static final String[] ESCAPES = new String[128];
+
+  static {
+    for (int c = 0; c < 0x20; c++) {
+      ESCAPES[c] = new String(new char[] {'\\', 'u', '0', '0', HEX_DIGITS[c >> 4], HEX_DIGITS[c & 0xF]});
+    }
+    ESCAPES['"'] = "\\\"";
+    ESCAPES['\\'] = "\\\\";
+    ESCAPES['\b'] = "\\b";
+    ESCAPES['\f'] = "\\f";
+    ESCAPES['\n'] = "\\n";
+    ESCAPES['\r'] = "\\r";
+    ESCAPES['\t'] = "\\t";
+  }
+
+  private JSONEscaper() {
+  }
+
+  /**
+   * Indicates if the specified character is written as an escape sequence.
+   * 
+   * @param c The character
+   * @return {@code true} if the character is escaped, otherwise {@code false}
+   */
+  static boolean isEscaped(char c) {
+    return (c < 0x80) && (ESCAPES[c] != null);
+  }
+
+  /**
+   * Returns the index of the first character of the specified string requiring an escape sequence.
+   * 
+   * @param value The string to scan
+   * @param start The index to start at
+   * @return The index of the character or the length of the string if there is none
+   */
+  static int indexOfEscaped(String value, int start) {
+    int end = value.length();
+    int i = start;
+    while ((i < end) && !isEscaped(value.charAt(i))) {
+      i++;
+    }
+
+    return i;
+  }
+
+  /**
+   * Returns the specified string as a quoted and escaped JSON string.
+   * 
+   * @param value The string value
+   * @return The textual representation
+   */
+  static String quote(String value) {
+    int length = value.length();
+    int index = indexOfEscaped(value, 0);
+    StringBuilder builder = new StringBuilder(length + ((index < length) ? 18 : 2));
+
+    try {
+      appendQuoted(builder, value, index);
+    } catch (IOException e) {
+      // a StringBuilder does not throw
+      throw new UncheckedIOException(e);
+    }
+
+    return builder.toString();
+  }
+
+  /**
+   * Appends the specified string as a quoted and escaped JSON string.
+   * 
+   * @param out The appendable to append to
+   * @param value The string value
+   * @throws IOException If the appendable cannot be written
+   */
+  static void appendQuoted(Appendable out, String value) throws IOException {
+    appendQuoted(out, value, indexOfEscaped(value, 0));
+  }
+
+  private static void appendQuoted(Appendable out, String value, int firstEscaped) throws IOException {
+    int end = value.length();
+
+    out.append('"');
+
+    int start = 0;
+    int index = firstEscaped;
+    while (index < end) {
+      if (index > start) {
+        out.append(value, start, index);
+      }
+      out.append(ESCAPES[value.charAt(index)]);
+
+      start = index + 1;
+      index = indexOfEscaped(value, start);
+    }
+
+    if (start == 0) {
+      out.append(value);
+    } else if (start < end) {
+      out.append(value, start, end);
+    }
+
+    out.append('"');
+  }
+}
@@ -16,25 +16,30 @@
 
 package de.dcoding.json;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.Map.Entry;
 
 /**
  * JSON Formatter to convert a JSONValue into a formatted String
+ * <p>
+ * Instances are thread safe and can be shared. The state of a conversion is held per call. The
+ * formatter keeps a frozen snapshot of the {@link JSONFormatterSettings} passed to
+ * {@link #setSettings(JSONFormatterSettings)}, which is compiled once into the separators and
+ * indentions to append. Later changes of the passed settings are not applied, other settings take
+ * effect by passing them to {@link #setSettings(JSONFormatterSettings)} again.
  * 
  * @since  1.0
  */
 public class JSONFormatter {
-  private static final String STRING_SPACE = " ";
-  private static final String STRING_OBJECT_START = "{";
-  private static final String STRING_OBJECT_END = "}";
-  private static final String STRING_MEMBER_SEPARATOR = ",";
-  private static final String STRING_NAME_VALUE_SEPARATOR = ":";
-  private static final String STRING_ARRAY_START = "[";
-  private static final String STRING_ARRAY_END = "]";
-  private static final String STRING_ELEMENT_SEPARATOR = ",";
+  /**
+   * Formatter with the default settings, used by {@link JSONValue#toString()}
+   */
+  static final JSONFormatter DEFAULT = new JSONFormatter(new JSONFormatterSettings().freeze());
 
-  private JSONFormatterSettings settings;
-  private String currentIndention = "";
+  private volatile JSONFormatterPlan plan;
 
   /**
    * Constructs a new instance with a default {@link JSONFormatterSettings} instance.
@@ -61,213 +66,151 @@ public class JSONFormatter {
   public String toString(JSONValue value) {
     if (value == null) {
       return null;
-    } else {
-      if (value instanceof JSONObject) {
-        return toString((JSONObject) value);
-      } else if (value instanceof JSONArray) {
-        return toString((JSONArray) value);
-      } else {
-        return value.toString();
+    } else if ((value instanceof JSONObject) || (value instanceof JSONArray)) {
+      StringBuilder builder = new StringBuilder();
+      try {
+        appendValue(builder, value, plan, 0);
+      } catch (IOException e) {
+        // a StringBuilder does not throw
+        throw new UncheckedIOException(e);
       }
+      return builder.toString();
+    } else {
+      return value.toString();
     }
   }
 
-  private String toString(JSONObject object) {
-    boolean isEmptyObject = (object.size() == 0);
-    StringBuilder builder = new StringBuilder((object.size() << 1) + 1);
-    
-    builder.append(STRING_OBJECT_START);
-    appendStartOfObject(builder, isEmptyObject);
-    increaseIndention();
-    
-    appendObjectMembers(builder, object);
-
-    decreaseIndention();
-    appendEndOfObject(builder, isEmptyObject);
-    builder.append(STRING_OBJECT_END);
+  /**
+   * Writes the formatted textual representation of the specified {@link JSONValue} into the
+   * specified {@link Appendable} in a single pass, without building the text as a String first.
+   * The appendable is neither flushed nor closed. Unbuffered writers should be wrapped in a
+   * {@link BufferedWriter}. Like {@link #toString(JSONValue)}, which returns {@code null} for a
+   * {@code null} value, nothing is written for a {@code null} value.
+   * 
+   * @param value The value to write
+   * @param out The appendable to write into
+   * @throws IOException If the appendable cannot be written
+   * @since  1.1
+   */
+  public void write(JSONValue value, Appendable out) throws IOException {
+    if (out == null) {
+      throw new IllegalArgumentException();
+    }
 
-    return builder.toString();
+    if (value != null) {
+      appendValue(out, value, plan, 0);
+    }
   }
 
-  private String toString(JSONArray array) {
-    boolean isEmptyArray = (array.size() == 0);
-    StringBuilder builder = new StringBuilder((array.size() << 1) + 1);
-
-    builder.append(STRING_ARRAY_START);
-    appendStartOfArray(builder, isEmptyArray);
-    increaseIndention();
+  /**
+   * Writes the formatted textual representation of the specified {@link JSONValue} as UTF-8
+   * bytes into the specified {@link OutputStream}. The characters are encoded directly into a
+   * buffer, which is written to the stream when full and at the end. The stream is neither
+   * flushed nor closed. Nothing is written for a {@code null} value.
+   * 
+   * @param value The value to write
+   * @param stream The stream to write into
+   * @throws IOException If the stream cannot be written
+   * @since  1.1
+   */
+  public void write(JSONValue value, OutputStream stream) throws IOException {
+    if (stream == null) {
+      throw new IllegalArgumentException();
+    }
 
-    appendArrayElements(builder, array);
-    
-    decreaseIndention();
-    appendEndOfArray(builder, isEmptyArray);
-    builder.append(STRING_ARRAY_END);
+    if (value == null) {
+      return;
+    }
 
-    return builder.toString();
+    UTF8Output output = new UTF8Output(stream);
+    appendValue(output, value, plan, 0);
+    output.flush();
   }
 
-  private void increaseIndention() {
-    currentIndention += settings.getIndentionString();
+  private void appendValue(Appendable out, JSONValue value, JSONFormatterPlan plan, int depth) throws IOException {
+    if (value instanceof JSONObject) {
+      appendObject(out, (JSONObject) value, plan, depth);
+    } else if (value instanceof JSONArray) {
+      appendArray(out, (JSONArray) value, plan, depth);
+    } else if (value instanceof JSONString) {
+      appendString(out, ((JSONString) value).getValue());
+    } else {
+      out.append(value.toString());
+    }
   }
 
-  private void decreaseIndention() {
-    String configuredIndention = settings.getIndentionString();
-    currentIndention = currentIndention.substring(configuredIndention.length());
+  private void appendString(Appendable out, String value) throws IOException {
+    if (out instanceof UTF8Output) {
+      ((UTF8Output) out).appendString(value);
+    } else {
+      JSONEscaper.appendQuoted(out, value);
+    }
   }
 
-  private void appendStartOfObject(StringBuilder builder, boolean isEmptyObject) {
-    if (settings.isAddNewlineAfterObjectBegin()) {
-      builder.append(settings.getNewlineString());
-    } else if (settings.isAddSpaceAfterObjectBegin() && !(settings.isAddNewlineBeforeObjectEnd() && isEmptyObject)) {
-      builder.append(STRING_SPACE);
+  private void appendObject(Appendable out, JSONObject object, JSONFormatterPlan plan, int depth) throws IOException {
+    JSONFormatterPlan.Container strings = plan.getObject();
+    if (object.size() == 0) {
+      out.append(strings.getEmpty(depth));
+      return;
     }
-  }
 
-  private void appendObjectMembers(StringBuilder builder, JSONObject object) {
+    String separator = strings.getSeparator(depth);
+    String nameValueSeparator = plan.getNameValueSeparator();
     boolean isFirstMember = true;
-    String indentionString = settings.getIndentionString();
-    int indentionStringLength = indentionString.length();
 
+    out.append(strings.getStart(depth));
     for (Entry<String, JSONValue> member : object.entrySet()) {
       if (!isFirstMember) {
-        appendMembersSeparator(builder);
+        out.append(separator);
       }
 
-      if ((indentionStringLength > 0) && isIndentionRequiredInObject(isFirstMember)) {
-        builder.append(currentIndention);
-      }
-
-      appendMember(builder, member);
+      appendString(out, member.getKey());
+      out.append(nameValueSeparator);
+      appendValue(out, member.getValue(), plan, depth + 1);
 
       isFirstMember = false;
     }
+    out.append(strings.getEnd(depth));
   }
 
-  private void appendMember(StringBuilder builder, Entry<String, JSONValue> member) {
-    String entryNameAsString = String.format("\"%s\"", member.getKey());
-    builder.append(entryNameAsString);
-    
-    appendNameValueSeparator(builder);
-    
-    String entryValueAsString = toString(member.getValue());
-    builder.append(entryValueAsString);
-  }
-
-  private void appendMembersSeparator(StringBuilder builder) {
-    if (settings.isAddSpaceBeforeMemberSeparator()) {
-      builder.append(STRING_SPACE);
+  private void appendArray(Appendable out, JSONArray array, JSONFormatterPlan plan, int depth) throws IOException {
+    JSONFormatterPlan.Container strings = plan.getArray();
+    if (array.size() == 0) {
+      out.append(strings.getEmpty(depth));
+      return;
     }
 
-    builder.append(STRING_MEMBER_SEPARATOR);
-
-    if (settings.isAddNewlineAfterMemberSeparator()) {
-      builder.append(settings.getNewlineString());
-    } else if (settings.isAddSpaceAfterMemberSeparator()) {
-      builder.append(STRING_SPACE);
-    }
-  }
-
-  private void appendNameValueSeparator(StringBuilder builder) {
-    if (settings.isAddSpaceBeforeNameValueSeparator()) {
-      builder.append(STRING_SPACE);
-    }
-
-    builder.append(STRING_NAME_VALUE_SEPARATOR);
-
-    if (settings.isAddSpaceAfterNameValueSeparator()) {
-      builder.append(STRING_SPACE);
-    }
-  }
-
-  private boolean isIndentionRequiredInObject(boolean isFirstMember) {
-    return ((isFirstMember && settings.isAddNewlineAfterObjectBegin()) || (!isFirstMember && settings.isAddNewlineAfterMemberSeparator()));
-  }
-
-  private void appendEndOfObject(StringBuilder builder, boolean isEmptyObject) {
-    if (settings.isAddNewlineBeforeObjectEnd() && !(settings.isAddNewlineAfterObjectBegin() && isEmptyObject)) {
-      builder.append(settings.getNewlineString());
-      builder.append(currentIndention);
-    } else if ((settings.isAddNewlineBeforeObjectEnd() || settings.isAddNewlineAfterObjectBegin()) && isEmptyObject) {
-      builder.append(currentIndention);
-    } else if (settings.isAddSpaceBeforeObjectEnd() && !((settings.isAddNewlineAfterObjectBegin() || settings.isAddSpaceAfterObjectBegin()) && isEmptyObject)) {
-      builder.append(STRING_SPACE);
-    }
-  }
-
-  private void appendStartOfArray(StringBuilder builder, boolean isEmptyArray) {
-    if (settings.isAddNewlineAfterArrayBegin()) {
-      builder.append(settings.getNewlineString());
-    } else if (settings.isAddSpaceAfterArrayBegin() && !(settings.isAddNewlineBeforeArrayEnd() && isEmptyArray)) {
-      builder.append(STRING_SPACE);
-    }
-  }
-
-  private void appendArrayElements(StringBuilder builder, JSONArray array) {
+    String separator = strings.getSeparator(depth);
     boolean isFirstElement = true;
-    String indentionString = settings.getIndentionString();
-    int indentionStringLength = indentionString.length();
 
+    out.append(strings.getStart(depth));
     for (JSONValue element : array) {
       if (!isFirstElement) {
-        appendElementsSeparator(builder);
+        out.append(separator);
       }
 
-      if ((indentionStringLength > 0) && isIndentionRequiredInArray(isFirstElement)) {
-        builder.append(currentIndention);
-      }
-
-      appendElement(builder, element);
+      appendValue(out, element, plan, depth + 1);
 
       isFirstElement = false;
     }
-  }
-
-  private void appendElement(StringBuilder builder, JSONValue element) {
-    String elementAsString = toString(element);
-    builder.append(elementAsString);
-  }
-
-  private void appendElementsSeparator(StringBuilder builder) {
-    if (settings.isAddSpaceBeforeValueSeparator()) {
-      builder.append(STRING_SPACE);
-    }
-
-    builder.append(STRING_ELEMENT_SEPARATOR);
-
-    if (settings.isAddNewlineAfterValueSeparator()) {
-      builder.append(settings.getNewlineString());
-    } else if (settings.isAddSpaceAfterValueSeparator()) {
-      builder.append(STRING_SPACE);
-    }
-  }
-
-  private boolean isIndentionRequiredInArray(boolean firstElement) {
-    return (firstElement && settings.isAddNewlineAfterArrayBegin()) || (!firstElement && settings.isAddNewlineAfterValueSeparator());
-  }
-
-  private void appendEndOfArray(StringBuilder builder, boolean isEmptyArray) {
-    if (settings.isAddNewlineBeforeArrayEnd() && !(settings.isAddNewlineAfterArrayBegin() && isEmptyArray)) {
-      builder.append(settings.getNewlineString());
-      builder.append(currentIndention);
-    } else if ((settings.isAddNewlineBeforeArrayEnd() || settings.isAddNewlineAfterArrayBegin()) && isEmptyArray) {
-      builder.append(currentIndention);
-    } else if (settings.isAddSpaceBeforeArrayEnd() && !((settings.isAddNewlineAfterArrayBegin() || settings.isAddSpaceAfterArrayBegin()) && isEmptyArray)) {
-      builder.append(STRING_SPACE);
-    }
+    out.append(strings.getEnd(depth));
   }
 
   /**
-   * Returns the configured {@link JSONFormatterSettings}
+   * Returns the frozen snapshot of the configured {@link JSONFormatterSettings}. The setters of the
+   * snapshot throw an {@link UnsupportedOperationException}. To change the formatting, pass a
+   * modified copy to {@link #setSettings(JSONFormatterSettings)}.
    * 
-   * @return The configured settings
+   * @return The frozen settings in use
    */
   public JSONFormatterSettings getSettings() {
-    return settings;
+    return plan.getSettings();
   }
 
   /**
    * Applies the specified {@link JSONFormatterSettings} for successive conversions
-   * with {@link #toString()}.
+   * with {@link #toString()}. A frozen snapshot of the settings is taken, so later changes of the
+   * specified settings are not applied. Frozen settings are used as they are.
    * 
    * @param value The settings defining the formatting
    */
@@ -276,6 +219,6 @@ public class JSONFormatter {
       throw new IllegalArgumentException();
     }
 
-    settings = value;
+    plan = new JSONFormatterPlan(value.freeze());
   }
 }
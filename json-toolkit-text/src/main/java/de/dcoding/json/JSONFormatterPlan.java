@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json;
+
+/**
+ * Formatting of {@link JSONFormatterSettings} compiled into the strings to append. The separators,
+ * including a following indention, as well as the beginnings and ends of containers are prepared per
+ * depth, so formatting a value does not evaluate the settings anymore.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * 
+ * @since  1.1
+ */
+final class JSONFormatterPlan {
+  /**
+   * The number of depths with prepared strings. Deeper containers build their strings when needed.
+   */
+  private static final int PREPARED_DEPTHS = 16;
+
+  private final JSONFormatterSettings settings;
+  private final String nameValueSeparator;
+  private final Container object;
+  private final Container array;
+
+  /**
+   * Compiles the specified frozen settings.
+   * 
+   * @param settings The frozen settings to compile
+   */
+  JSONFormatterPlan(JSONFormatterSettings settings) {
+    this.settings = settings;
+
+    String newline = settings.getNewlineString();
+    String indention = settings.getIndentionString();
+
+    nameValueSeparator = (settings.isAddSpaceBeforeNameValueSeparator() ? " " : "") + ":"
+        + (settings.isAddSpaceAfterNameValueSeparator() ? " " : "");
+    object = new Container('{', '}', newline, indention,
+        settings.isAddNewlineAfterObjectBegin(), settings.isAddSpaceAfterObjectBegin(),
+        settings.isAddNewlineBeforeObjectEnd(), settings.isAddSpaceBeforeObjectEnd(),
+        settings.isAddSpaceBeforeMemberSeparator(), settings.isAddNewlineAfterMemberSeparator(),
+        settings.isAddSpaceAfterMemberSeparator());
+    array = new Container('[', ']', newline, indention,
+        settings.isAddNewlineAfterArrayBegin(), settings.isAddSpaceAfterArrayBegin(),
+        settings.isAddNewlineBeforeArrayEnd(), settings.isAddSpaceBeforeArrayEnd(),
+        settings.isAddSpaceBeforeValueSeparator(), settings.isAddNewlineAfterValueSeparator(),
+        settings.isAddSpaceAfterValueSeparator());
+  }
+
+  /**
+   * Returns the frozen settings this plan was compiled from.
+   */
+  JSONFormatterSettings getSettings() {
+    return settings;
+  }
+
+  /**
+   * Returns the separator between the name and the value of a member.
+   */
+  String getNameValueSeparator() {
+    return nameValueSeparator;
+  }
+
+  /**
+   * Returns the compiled strings of objects.
+   */
+  Container getObject() {
+    return object;
+  }
+
+  /**
+   * Returns the compiled strings of arrays.
+   */
+  Container getArray() {
+    return array;
+  }
+
+  /**
+   * Compiled strings of a kind of container, each including the indention of the following member or
+   * element or of the end of the container
+   */
+  static final class Container {
+    private final String newline;
+    private final String indention;
+    private final String beginning;
+    private final boolean isIndentingFirst;
+    private final String separator;
+    private final boolean isIndentingAfterSeparator;
+    private final boolean isNewlineBeforeEnd;
+    private final String ending;
+    private final String emptyBeginning;
+    private final String emptyNewline;
+    private final boolean isIndentingEmptyEnd;
+    private final String emptyEnding;
+
+    private final String[] starts = new String[PREPARED_DEPTHS];
+    private final String[] separators = new String[PREPARED_DEPTHS];
+    private final String[] ends = new String[PREPARED_DEPTHS];
+    private final String[] empties = new String[PREPARED_DEPTHS];
+
+    Container(char begin, char end, String newline, String indention,
+        boolean isNewlineAfterBegin, boolean isSpaceAfterBegin, boolean isNewlineBeforeEnd, boolean isSpaceBeforeEnd,
+        boolean isSpaceBeforeSeparator, boolean isNewlineAfterSeparator, boolean isSpaceAfterSeparator) {
+      this.newline = newline;
+      this.indention = indention;
+      boolean isIndenting = !indention.isEmpty();
+
+      beginning = begin + (isNewlineAfterBegin ? newline : (isSpaceAfterBegin ? " " : ""));
+      isIndentingFirst = isIndenting && isNewlineAfterBegin;
+      separator = (isSpaceBeforeSeparator ? " " : "") + ","
+          + (isNewlineAfterSeparator ? newline : (isSpaceAfterSeparator ? " " : ""));
+      isIndentingAfterSeparator = isIndenting && isNewlineAfterSeparator;
+      this.isNewlineBeforeEnd = isNewlineBeforeEnd;
+      ending = (!isNewlineBeforeEnd && isSpaceBeforeEnd ? " " : "") + end;
+
+      if (isNewlineAfterBegin) {
+        emptyBeginning = begin + newline;
+      } else if (isSpaceAfterBegin && !isNewlineBeforeEnd) {
+        emptyBeginning = begin + " ";
+      } else {
+        emptyBeginning = String.valueOf(begin);
+      }
+      emptyNewline = (isNewlineBeforeEnd && !isNewlineAfterBegin) ? newline : "";
+      isIndentingEmptyEnd = isNewlineBeforeEnd || isNewlineAfterBegin;
+      emptyEnding = ((!isIndentingEmptyEnd && isSpaceBeforeEnd && !isSpaceAfterBegin) ? " " : "") + end;
+
+      for (int depth = 0; depth < PREPARED_DEPTHS; depth++) {
+        starts[depth] = buildStart(depth);
+        separators[depth] = buildSeparator(depth);
+        ends[depth] = buildEnd(depth);
+        empties[depth] = buildEmpty(depth);
+      }
+    }
+
+    /**
+     * Returns the beginning of a non-empty container at the specified depth, including the indention
+     * of its first child.
+     */
+    String getStart(int depth) {
+      return (depth < PREPARED_DEPTHS) ? starts[depth] : buildStart(depth);
+    }
+
+    /**
+     * Returns the separator between the children of a container at the specified depth, including the
+     * indention of the following child.
+     */
+    String getSeparator(int depth) {
+      return (depth < PREPARED_DEPTHS) ? separators[depth] : buildSeparator(depth);
+    }
+
+    /**
+     * Returns the end of a non-empty container at the specified depth.
+     */
+    String getEnd(int depth) {
+      return (depth < PREPARED_DEPTHS) ? ends[depth] : buildEnd(depth);
+    }
+
+    /**
+     * Returns the whole text of an empty container at the specified depth.
+     */
+    String getEmpty(int depth) {
+      return (depth < PREPARED_DEPTHS) ? empties[depth] : buildEmpty(depth);
+    }
+
+    private String buildStart(int depth) {
+      return isIndentingFirst ? beginning + indent(depth + 1) : beginning;
+    }
+
+    private String buildSeparator(int depth) {
+      return isIndentingAfterSeparator ? separator + indent(depth + 1) : separator;
+    }
+
+    private String buildEnd(int depth) {
+      return isNewlineBeforeEnd ? newline + indent(depth) + ending : ending;
+    }
+
+    private String buildEmpty(int depth) {
+      return isIndentingEmptyEnd ? emptyBeginning + emptyNewline + indent(depth) + emptyEnding : emptyBeginning + emptyEnding;
+    }
+
+    private String indent(int depth) {
+      StringBuilder builder = new StringBuilder(indention.length() * depth);
+      for (int i = 0; i < depth; i++) {
+        builder.append(indention);
+      }
+
+      return builder.toString();
+    }
+  }
+}
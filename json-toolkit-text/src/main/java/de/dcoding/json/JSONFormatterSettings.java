@@ -18,6 +18,9 @@ package de.dcoding.json;
 
 /**
  * Data class bundling all formatter settings
+ * <p>
+ * A {@link #freeze() frozen} copy of the settings cannot be changed anymore and can be shared
+ * between threads.
  * 
  * @since  1.0
  */
@@ -59,6 +62,7 @@ public class JSONFormatterSettings {
   private boolean addSpaceAfterValueSeparator;
   private String newlineString;
   private String indentionString;
+  private boolean frozen;
   
   /**
    * Constructs a new instance with the default settings applied.
@@ -84,6 +88,71 @@ public class JSONFormatterSettings {
     setIndentionString(DEFAULT_INDENTION_STRING);
   }
 
+  /**
+   * Constructs a new, modifiable instance with the values of the specified settings.
+   * 
+   * @param  settings The settings to copy
+   * @since  1.1
+   */
+  public JSONFormatterSettings(JSONFormatterSettings settings) {
+    if (settings == null) {
+      throw new IllegalArgumentException();
+    }
+
+    addNewlineAfterObjectBegin = settings.addNewlineAfterObjectBegin;
+    addSpaceAfterObjectBegin = settings.addSpaceAfterObjectBegin;
+    addNewlineBeforeObjectEnd = settings.addNewlineBeforeObjectEnd;
+    addSpaceBeforeObjectEnd = settings.addSpaceBeforeObjectEnd;
+    addSpaceBeforeNameValueSeparator = settings.addSpaceBeforeNameValueSeparator;
+    addSpaceAfterNameValueSeparator = settings.addSpaceAfterNameValueSeparator;
+    addSpaceBeforeMemberSeparator = settings.addSpaceBeforeMemberSeparator;
+    addNewlineAfterMemberSeparator = settings.addNewlineAfterMemberSeparator;
+    addSpaceAfterMemberSeparator = settings.addSpaceAfterMemberSeparator;
+    addNewlineAfterArrayBegin = settings.addNewlineAfterArrayBegin;
+    addSpaceAfterArrayBegin = settings.addSpaceAfterArrayBegin;
+    addNewlineBeforeArrayEnd = settings.addNewlineBeforeArrayEnd;
+    addSpaceBeforeArrayEnd = settings.addSpaceBeforeArrayEnd;
+    addSpaceBeforeValueSeparator = settings.addSpaceBeforeValueSeparator;
+    addNewlineAfterValueSeparator = settings.addNewlineAfterValueSeparator;
+    addSpaceAfterValueSeparator = settings.addSpaceAfterValueSeparator;
+    newlineString = settings.newlineString;
+    indentionString = settings.indentionString;
+  }
+
+  /**
+   * Returns an unmodifiable copy of these settings. The setters of the copy throw an
+   * {@link UnsupportedOperationException}. Frozen settings return themselves.
+   * 
+   * @return The frozen settings
+   * @since  1.1
+   */
+  public JSONFormatterSettings freeze() {
+    if (frozen) {
+      return this;
+    }
+
+    JSONFormatterSettings settings = new JSONFormatterSettings(this);
+    settings.frozen = true;
+
+    return settings;
+  }
+
+  /**
+   * Indicates if these settings are frozen and cannot be changed anymore.
+   * 
+   * @return {@code true} if the settings are frozen, otherwise {@code false}
+   * @since  1.1
+   */
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  private void checkModifiable() {
+    if (frozen) {
+      throw new UnsupportedOperationException("The settings are frozen");
+    }
+  }
+
   /**
    * Indicates if a new line inserted after the beginning of an object.
    * 
@@ -99,6 +168,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if new lines are to be added, {@code false} otherwise
    */
   public void setAddNewlineAfterObjectBegin(boolean value) {
+    checkModifiable();
     addNewlineAfterObjectBegin = value;
   }
   
@@ -117,6 +187,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddSpaceAfterObjectBegin(boolean value) {
+    checkModifiable();
     addSpaceAfterObjectBegin = value;
   }
 
@@ -135,6 +206,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddNewlineBeforeObjectEnd(boolean value) {
+    checkModifiable();
     addNewlineBeforeObjectEnd = value;
   }
 
@@ -153,6 +225,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddSpaceBeforeObjectEnd(boolean value) {
+    checkModifiable();
     addSpaceBeforeObjectEnd = value;
   }
 
@@ -171,6 +244,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddSpaceBeforeNameValueSeparator(boolean value) {
+    checkModifiable();
     addSpaceBeforeNameValueSeparator = value;
   }
 
@@ -189,6 +263,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddSpaceAfterNameValueSeparator(boolean value) {
+    checkModifiable();
     addSpaceAfterNameValueSeparator = value;
   }
 
@@ -207,6 +282,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddSpaceBeforeMemberSeparator(boolean value) {
+    checkModifiable();
     addSpaceBeforeMemberSeparator = value;
   }
   
@@ -225,6 +301,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddNewlineAfterMemberSeparator(boolean value) {
+    checkModifiable();
     addNewlineAfterMemberSeparator = value;
   }
 
@@ -243,6 +320,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddSpaceAfterMemberSeparator(boolean value) {
+    checkModifiable();
     addSpaceAfterMemberSeparator = value;
   }
   
@@ -261,6 +339,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddNewlineAfterArrayBegin(boolean value) {
+    checkModifiable();
     addNewlineAfterArrayBegin = value;
   }
  
@@ -279,6 +358,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddSpaceAfterArrayBegin(boolean value) {
+    checkModifiable();
     addSpaceAfterArrayBegin = value;
   }
   
@@ -297,6 +377,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddNewlineBeforeArrayEnd(boolean value) {
+    checkModifiable();
     addNewlineBeforeArrayEnd = value;
   }
   
@@ -315,6 +396,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddSpaceBeforeArrayEnd(boolean value) {
+    checkModifiable();
     addSpaceBeforeArrayEnd = value;
   }
   
@@ -333,6 +415,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddSpaceBeforeValueSeparator(boolean value) {
+    checkModifiable();
     addSpaceBeforeValueSeparator = value;
   }
   
@@ -351,6 +434,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddNewlineAfterValueSeparator(boolean value) {
+    checkModifiable();
     addNewlineAfterValueSeparator = value;
   }
   
@@ -369,6 +453,7 @@ public class JSONFormatterSettings {
    * @param value {@code true} if it is to be added, otherwise {@code false}
    */
   public void setAddSpaceAfterValueSeparator(boolean value) {
+    checkModifiable();
     addSpaceAfterValueSeparator = value;
   }
   
@@ -387,6 +472,7 @@ public class JSONFormatterSettings {
    * @param value The new line string
    */
   public void setNewlineString(String value) {
+    checkModifiable();
     if (value != null) {
       if (value.matches("^\\r?\\n$")) {
         newlineString = value;
@@ -409,6 +495,7 @@ public class JSONFormatterSettings {
    * @param value The indention string
    */
   public void setIndentionString(String value) {
+    checkModifiable();
     if (value != null) {
       if (value.matches("^([ ]*|\\t*)$")) {
         indentionString = value;
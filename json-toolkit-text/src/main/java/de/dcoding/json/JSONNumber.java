@@ -16,30 +16,49 @@
 
 package de.dcoding.json;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
 /**
- * Java class representing a numerical JSON value
+ * Java class representing a numerical JSON value. The textual representation is kept as it is
+ * and only converted on the first access to one of the numerical values. The converted values
+ * are immutable and cached in one field each, so instances can be shared between threads.
  * 
  * @since  1.0
  */
 public class JSONNumber extends JSONPrimitiveValue<String> {
-  private String stringValue;
-  private Long longValue;
+  private static final int INVALID = 0;
+  private static final int INTEGRAL = 1;
+  private static final int FRACTIONAL = 2;
+  private static final Object NOT_AN_INTEGER = new Object();
+
+  private final String stringValue;
+  private final boolean integral;
+  private Object integerValue;
   private Double doubleValue;
+  private BigInteger bigIntegerValue;
+  private BigDecimal bigDecimalValue;
   
   /**
    * Constructs a new instance with the specified string representation
    * of the associated number.
    * 
    * @param value The string representing the number
-   * @throws IllegalArgumentException if the specified string is not an integer and
-   *         not a floating point value
+   * @throws IllegalArgumentException if the specified string is not a number
+   *         according to the JSON grammar
    */
   public JSONNumber(String value) {
-    setValue(value);
+    if (value == null) {
+      throw new IllegalArgumentException();
+    }
 
-    if (!isInteger() && !isFloatingPoint()) {
+    int type = classify(value);
+    if (type == INVALID) {
       throw new IllegalArgumentException();
     }
+
+    this.stringValue = value;
+    this.integral = (type == INTEGRAL);
   }
 
   /**
@@ -52,44 +71,103 @@ public class JSONNumber extends JSONPrimitiveValue<String> {
     return stringValue;
   }
 
-  private void setValue(String value) {
-    if (value == null) {
-      throw new IllegalArgumentException();
+  private static int classify(String value) {
+    int length = value.length();
+    int index = 0;
+
+    if ((index < length) && (value.charAt(index) == '-')) {
+      index++;
     }
 
-    this.stringValue = value;
-    tryParseAsInteger(value);
-    tryParseAsFloatingPoint(value);
+    if ((index < length) && (value.charAt(index) == '0')) {
+      index++;
+    } else if ((index < length) && isNonZeroDigit(value.charAt(index))) {
+      index = skipDigits(value, index + 1);
+    } else {
+      return INVALID;
+    }
+
+    int type = INTEGRAL;
+
+    if ((index < length) && (value.charAt(index) == '.')) {
+      int start = index + 1;
+      index = skipDigits(value, start);
+      if (index == start) {
+        return INVALID;
+      }
+      type = FRACTIONAL;
+    }
+
+    if ((index < length) && ((value.charAt(index) == 'e') || (value.charAt(index) == 'E'))) {
+      index++;
+      if ((index < length) && ((value.charAt(index) == '+') || (value.charAt(index) == '-'))) {
+        index++;
+      }
+      int start = index;
+      index = skipDigits(value, start);
+      if (index == start) {
+        return INVALID;
+      }
+      type = FRACTIONAL;
+    }
+
+    return (index == length) ? type : INVALID;
   }
 
-  private void tryParseAsInteger(String value) {
-    try {
-      longValue = Long.parseLong(value);
-    } catch (NumberFormatException e) {
-      longValue = null;
+  private static int skipDigits(String value, int start) {
+    int index = start;
+
+    while ((index < value.length()) && isDigit(value.charAt(index))) {
+      index++;
     }
+
+    return index;
   }
 
-  private void tryParseAsFloatingPoint(String value) {
-    if (!isInteger()) {
-      try {
-        doubleValue = Double.parseDouble(value);
-      } catch (NumberFormatException e) {
-        doubleValue = null;
+  private static boolean isDigit(char character) {
+    return ((character >= '0') && (character <= '9'));
+  }
+
+  private static boolean isNonZeroDigit(char character) {
+    return ((character >= '1') && (character <= '9'));
+  }
+
+  /**
+   * Parses an integral number without exceptions.
+   * 
+   * @return The value or {@code null} if the number exceeds the range of a long
+   */
+  private static Long parseLong(String value) {
+    boolean negative = (value.charAt(0) == '-');
+    long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    long multiplicationLimit = limit / 10;
+    long result = 0;
+
+    // accumulated negatively, so Long.MIN_VALUE is in range
+    for (int i = negative ? 1 : 0, j = value.length(); i < j; i++) {
+      int digit = value.charAt(i) - '0';
+      if (result < multiplicationLimit) {
+        return null;
       }
-    } else {
-      doubleValue = null;
+      result *= 10;
+      if (result < (limit + digit)) {
+        return null;
+      }
+      result -= digit;
     }
+
+    return negative ? result : -result;
   }
 
   /**
-   * Indicates if the associated number value is an integer.
+   * Indicates if the associated number value is an integer, which is the case for
+   * numbers without fraction and exponent in the range of a {@link Long}.
    * 
    * @since 1.0.3
    * @return {@code true} if integer, other {@code false}
    */
   public boolean isInteger() {
-    return (longValue != null);
+    return (getIntegerValue() != null);
   }
 
   /**
@@ -100,17 +178,26 @@ public class JSONNumber extends JSONPrimitiveValue<String> {
    * @return The integer value
    */
   public Long getIntegerValue() {
-    return longValue;
+    // read once, a concurrent evaluation stores an equal immutable value
+    Object value = integerValue;
+    if (value == null) {
+      Long parsed = integral ? parseLong(stringValue) : null;
+      value = (parsed != null) ? parsed : NOT_AN_INTEGER;
+      integerValue = value;
+    }
+
+    return (value != NOT_AN_INTEGER) ? (Long) value : null;
   }
 
   /**
-   * Indicates if the associated number value is a floating point.
+   * Indicates if the associated number value is a floating point, which is the case for
+   * numbers with fraction or exponent and for integers exceeding the range of a {@link Long}.
    * 
    * @since 1.0.3
    * @return {@code true} if integer, other {@code false}
    */
   public boolean isFloatingPoint() {
-    return (doubleValue != null);
+    return !isInteger();
   }
 
   /**
@@ -121,6 +208,54 @@ public class JSONNumber extends JSONPrimitiveValue<String> {
    * @return The floating point value
    */
   public Double getFloatingPointValue() {
-    return doubleValue;
+    if (isInteger()) {
+      return null;
+    }
+
+    Double value = doubleValue;
+    if (value == null) {
+      value = DoubleParser.parse(stringValue);
+      doubleValue = value;
+    }
+
+    return value;
+  }
+
+  /**
+   * Returns the exact value of the associated number as an {@link BigInteger}, {@code null} if the
+   * number has a fraction or exponent. In contrast to {@link #getIntegerValue()} integers of any size
+   * are supported.
+   * 
+   * @since 1.1
+   * @return The integer value
+   */
+  public BigInteger getBigInteger() {
+    if (!integral) {
+      return null;
+    }
+
+    BigInteger value = bigIntegerValue;
+    if (value == null) {
+      value = new BigInteger(stringValue);
+      bigIntegerValue = value;
+    }
+
+    return value;
+  }
+
+  /**
+   * Returns the exact value of the associated number as an {@link BigDecimal}.
+   * 
+   * @since 1.1
+   * @return The decimal value
+   */
+  public BigDecimal getBigDecimal() {
+    BigDecimal value = bigDecimalValue;
+    if (value == null) {
+      value = new BigDecimal(stringValue);
+      bigDecimalValue = value;
+    }
+
+    return value;
   }
 }
@@ -36,6 +36,17 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
     members = new LinkedHashMap<String, JSONValue>();
   }
 
+  /**
+   * Returns the map backing this object. All operations of the object are delegated to it.
+   * Subclasses may override it to provide the members lazily.
+   * 
+   * @since 1.1
+   * @return The map of the members
+   */
+  protected Map<String, JSONValue> getMembers() {
+    return members;
+  }
+
   /**
    * Retrieves the number of members.
    * 
@@ -43,7 +54,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public int size() {
-    return members.size();
+    return getMembers().size();
   }
 
   /**
@@ -53,7 +64,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public boolean isEmpty() {
-    return members.isEmpty();
+    return getMembers().isEmpty();
   }
 
   /**
@@ -63,7 +74,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public boolean containsKey(Object key) {
-    return members.containsKey(key);
+    return getMembers().containsKey(key);
   }
 
   /**
@@ -73,7 +84,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public boolean containsValue(Object value) {
-    return members.containsValue(value);
+    return getMembers().containsValue(value);
   }
 
   /**
@@ -84,7 +95,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public JSONValue get(Object key) {
-    return members.get(key);
+    return getMembers().get(key);
   }
 
   /**
@@ -97,7 +108,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @SuppressWarnings("unchecked")
   public <T extends JSONValue> T getAs(Object key) {
-    return (T) members.get(key);
+    return (T) getMembers().get(key);
   }
 
   /**
@@ -109,7 +120,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public JSONValue put(String key, JSONValue value) {
-    return members.put(key, value);
+    return getMembers().put(key, value);
   }
 
   /**
@@ -121,7 +132,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public JSONValue remove(Object key) {
-    return members.remove(key);
+    return getMembers().remove(key);
   }
 
   /**
@@ -131,7 +142,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public void putAll(Map<? extends String, ? extends JSONValue> m) {
-    members.putAll(m);
+    getMembers().putAll(m);
   }
 
   /**
@@ -139,7 +150,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public void clear() {
-    members.clear();
+    getMembers().clear();
   }
 
   /**
@@ -149,7 +160,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public Set<String> keySet() {
-    return members.keySet();
+    return getMembers().keySet();
   }
 
   /**
@@ -159,7 +170,7 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public Collection<JSONValue> values() {
-    return members.values();
+    return getMembers().values();
   }
 
   /**
@@ -169,6 +180,6 @@ public class JSONObject extends JSONValue implements Map<String, JSONValue> {
    */
   @Override
   public Set<java.util.Map.Entry<String, JSONValue>> entrySet() {
-    return members.entrySet();
+    return getMembers().entrySet();
   }
 }
@@ -74,52 +74,12 @@ public class JSONString extends JSONPrimitiveValue<String> {
 
   /**
    * Converts the string value into a JSON conformant textual representation.
-   * Special characters are automatically escaped.
+   * Quotation marks, reverse solidi and control characters are escaped.
    * 
    * @return The string representation
    */
   @Override
   public String toString() {
-    char[] preEscapingCharacters = getValue().toCharArray();
-    StringBuilder builder = new StringBuilder(preEscapingCharacters.length);
-    
-    builder.append("\"");
-
-    for (int i = 0, j = preEscapingCharacters.length; i < j; i++) {
-      int preEscapingCodePoint = Character.codePointAt(preEscapingCharacters, i);
-      switch (preEscapingCodePoint) {
-        case 0x22:
-          builder.append("\\\"");
-          break;
-        case 0x5C:
-          builder.append("\\\\");
-          break;
-        case 0x08:
-          builder.append("\\b");
-          break;
-        case 0x0C:
-          builder.append("\\f");
-          break;
-        case 0x0A:
-          builder.append("\\n");
-          break;
-        case 0x0D:
-          builder.append("\\r");
-          break;
-        case 0x09:
-          builder.append("\\t");
-          break;
-        default:
-          if (preEscapingCodePoint < 0x20) {
-            builder.append(String.format("\\u%4X", preEscapingCodePoint));
-          } else {
-            builder.append(preEscapingCharacters[i]);
-          }
-      }
-    }
-
-    builder.append("\"");
-    
-    return builder.toString();
+    return JSONEscaper.quote(getValue());
   }
 }
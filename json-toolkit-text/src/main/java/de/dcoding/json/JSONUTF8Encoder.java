@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encoder converting {@link JSONValue}s directly into UTF-8 bytes, without creating the text as a
+ * String first. The bytes are collected in an internal array, which is reused by successive
+ * conversions, so an encoder kept per thread does not allocate once the array has grown to the size
+ * of the encoded values.
+ * <p>
+ * Instances are not thread safe. The formatting is defined by the specified {@link JSONFormatter}.
+ * 
+ * @since  1.1
+ */
+public class JSONUTF8Encoder {
+  private final JSONFormatter formatter;
+  private final UTF8Output output = new UTF8Output();
+
+  /**
+   * Constructs a new instance using the default formatter of {@link JSON#getFormatter()}.
+   */
+  public JSONUTF8Encoder() {
+    this(JSON.getFormatter());
+  }
+
+  /**
+   * Constructs a new instance using the specified formatter.
+   * 
+   * @param formatter The formatter defining the formatting
+   */
+  public JSONUTF8Encoder(JSONFormatter formatter) {
+    if (formatter == null) {
+      throw new IllegalArgumentException();
+    }
+
+    this.formatter = formatter;
+  }
+
+  /**
+   * Encodes the specified {@link JSONValue} as UTF-8 bytes. The returned buffer wraps the internal
+   * array of this encoder and is only valid until the next conversion.
+   * 
+   * @param value The value to encode
+   * @return The buffer containing the bytes between its position and limit
+   */
+  public ByteBuffer encode(JSONValue value) {
+    output.reset();
+
+    try {
+      formatter.write(value, output);
+    } catch (IOException e) {
+      // the bytes are collected in memory
+      throw new UncheckedIOException(e);
+    }
+
+    return output.toByteBuffer();
+  }
+
+  /**
+   * Encodes the specified {@link JSONValue} as UTF-8 bytes into a new array.
+   * 
+   * @param value The value to encode
+   * @return The encoded bytes
+   */
+  public byte[] toByteArray(JSONValue value) {
+    ByteBuffer buffer = encode(value);
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+
+    return bytes;
+  }
+}
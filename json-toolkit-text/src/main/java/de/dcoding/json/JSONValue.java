@@ -24,15 +24,13 @@ package de.dcoding.json;
 public abstract class JSONValue {
   /**
    * Converts a JSON value into its textual representation by using a default
-   * {@link JSONFormatter}.
+   * {@link JSONFormatter}, which is shared by all values.
    * 
    * @return The string representation
    */
   @Override
   public String toString() {
-    JSONFormatter formatter = new JSONFormatter();
-    
-    return toString(formatter);
+    return toString(JSONFormatter.DEFAULT);
   }
 
   /**
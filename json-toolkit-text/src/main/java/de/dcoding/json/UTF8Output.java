@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link Appendable} encoding the appended characters directly as UTF-8 into a reusable byte array.
+ * If a stream is specified, the bytes are written to the stream whenever the array is full, otherwise
+ * the array grows as needed. Unpaired surrogates are encoded as {@code '?'}.
+ * <p>
+ * String values are escaped with the escape sequences of {@link JSONEscaper} as a lookup table of
+ * bytes, and the runs of characters without escaping are copied in a tight loop without checking the
+ * capacity per character.
+ * 
+ * @since  1.1
+ */
+class UTF8Output implements Appendable {
+  private static final int DEFAULT_CAPACITY = 8192;
+
+  /**
+   * Escape sequences of the ASCII characters, {@code null} for characters written as they are
+   */
+  private static final byte[][] ESCAPES = new byte[128][];
+
+  static {
+    for (int c = 0; c < ESCAPES.length; c++) {
+      if (JSONEscaper.ESCAPES[c] != null) {
+        ESCAPES[c] = JSONEscaper.ESCAPES[c].getBytes(StandardCharsets.US_ASCII);
+      }
+    }
+  }
+
+  private final OutputStream stream;
+  private byte[] bytes;
+  private int length;
+  private char highSurrogate;
+
+  /**
+   * Constructs a new instance collecting the bytes in a growing array.
+   */
+  UTF8Output() {
+    this(null);
+  }
+
+  /**
+   * Constructs a new instance writing the bytes to the specified stream when the array is full.
+   * 
+   * @param stream The stream to write to
+   */
+  UTF8Output(OutputStream stream) {
+    this.stream = stream;
+    bytes = new byte[DEFAULT_CAPACITY];
+  }
+
+  /**
+   * Drops the collected bytes, keeping the array for the next use.
+   */
+  void reset() {
+    length = 0;
+    highSurrogate = 0;
+  }
+
+  /**
+   * Returns the collected bytes as a buffer wrapping the internal array. The buffer is only valid
+   * until the next use of this instance.
+   */
+  ByteBuffer toByteBuffer() {
+    return ByteBuffer.wrap(bytes, 0, length);
+  }
+
+  /**
+   * Writes the collected bytes to the stream.
+   */
+  void flush() throws IOException {
+    if (length > 0) {
+      stream.write(bytes, 0, length);
+      length = 0;
+    }
+  }
+
+  @Override
+  public Appendable append(CharSequence csq) throws IOException {
+    return append(csq, 0, csq.length());
+  }
+
+  @Override
+  public Appendable append(CharSequence csq, int start, int end) throws IOException {
+    for (int i = start; i < end; i++) {
+      append(csq.charAt(i));
+    }
+
+    return this;
+  }
+
+  @Override
+  public Appendable append(char c) throws IOException {
+    if (highSurrogate != 0) {
+      char high = highSurrogate;
+      highSurrogate = 0;
+      if (Character.isLowSurrogate(c)) {
+        ensureCapacity(4);
+        appendCodePoint(Character.toCodePoint(high, c));
+        return this;
+      }
+      ensureCapacity(1);
+      bytes[length++] = '?';
+    }
+
+    if (Character.isHighSurrogate(c)) {
+      highSurrogate = c;
+    } else {
+      ensureCapacity(3);
+      appendChar(c);
+    }
+
+    return this;
+  }
+
+  /**
+   * Appends the specified value as a quoted and escaped JSON string.
+   * 
+   * @param value The string value
+   */
+  void appendString(String value) throws IOException {
+    ensureCapacity(1);
+    bytes[length++] = '"';
+
+    for (int i = 0, end = value.length(); i < end;) {
+      int runEnd = i;
+      char c;
+      while ((runEnd < end) && ((c = value.charAt(runEnd)) < 0x80) && !JSONEscaper.isEscaped(c)) {
+        runEnd++;
+      }
+
+      if (runEnd > i) {
+        ensureCapacity(runEnd - i);
+        byte[] target = bytes;
+        int position = length;
+        for (; i < runEnd; i++) {
+          target[position++] = (byte) value.charAt(i);
+        }
+        length = position;
+        if (i == end) {
+          break;
+        }
+      }
+
+      c = value.charAt(i++);
+      if (c < 0x80) {
+        byte[] escape = ESCAPES[c];
+        ensureCapacity(escape.length);
+        System.arraycopy(escape, 0, bytes, length, escape.length);
+        length += escape.length;
+      } else if (Character.isHighSurrogate(c) && (i < end) && Character.isLowSurrogate(value.charAt(i))) {
+        ensureCapacity(4);
+        appendCodePoint(Character.toCodePoint(c, value.charAt(i++)));
+      } else {
+        ensureCapacity(3);
+        appendChar(c);
+      }
+    }
+
+    ensureCapacity(1);
+    bytes[length++] = '"';
+  }
+
+  private void appendChar(char c) {
+    if (c < 0x80) {
+      bytes[length++] = (byte) c;
+    } else if (c < 0x800) {
+      bytes[length++] = (byte) (0xC0 | (c >> 6));
+      bytes[length++] = (byte) (0x80 | (c & 0x3F));
+    } else if (Character.isSurrogate(c)) {
+      bytes[length++] = '?';
+    } else {
+      bytes[length++] = (byte) (0xE0 | (c >> 12));
+      bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+      bytes[length++] = (byte) (0x80 | (c & 0x3F));
+    }
+  }
+
+  private void appendCodePoint(int codePoint) {
+    bytes[length++] = (byte) (0xF0 | (codePoint >> 18));
+    bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+    bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+    bytes[length++] = (byte) (0x80 | (codePoint & 0x3F));
+  }
+
+  private void ensureCapacity(int count) throws IOException {
+    if (length + count <= bytes.length) {
+      return;
+    }
+
+    if (stream != null) {
+      flush();
+      if (count <= bytes.length) {
+        return;
+      }
+    }
+
+    byte[] grown = new byte[Math.max(bytes.length << 1, length + count)];
+    System.arraycopy(bytes, 0, grown, 0, length);
+    bytes = grown;
+  }
+}
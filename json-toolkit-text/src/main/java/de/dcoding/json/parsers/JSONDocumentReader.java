@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import de.dcoding.json.JSONValue;
+import de.dcoding.parsers.ParserException;
+import de.dcoding.parsers.Token;
+
+/**
+ * Reader for streams of concatenated JSON texts like {@code {"a":1}{"b":2}[3]}, which are parsed one
+ * value at a time. The values may be separated by whitespace but need no delimiter, except numbers
+ * and literals following each other.
+ * <p>
+ * The tokens are pulled from a single {@link JSONTokenStream}, so the buffered input is kept between
+ * the values and only the current value is held in memory. A value is returned as soon as its last
+ * token is read, without waiting for the following input, so the reader can be used for long-lived
+ * connections. After a malformed value, the stream cannot be resynchronized and the reader has no
+ * more values.
+ * 
+ * @since  1.1
+ */
+public class JSONDocumentReader implements Closeable {
+  private static final int NO_TOKEN = -1;
+
+  private final JSONLLParser parser = new JSONLLParser();
+  private final JSONTokenStream tokens;
+  private final Closeable source;
+  private int pendingKind = NO_TOKEN;
+  private boolean closed;
+  private long position;
+
+  /**
+   * Constructs a new document reader for the textual JSON representations which are read
+   * incrementally from the specified {@link Reader}.
+   * 
+   * @param input The reader providing the textual JSON representations
+   */
+  public JSONDocumentReader(Reader input) {
+    this(new JSONTokenizer(input), input);
+  }
+
+  /**
+   * Constructs a new document reader for the remaining bytes of the specified buffer. UTF-8 encoded
+   * input is tokenized directly on the bytes by a {@link JSONUTF8Tokenizer}, other encodings are detected
+   * and decoded by {@link JSONEncoding}. The position of the buffer is not changed.
+   * 
+   * @param input The buffer containing the binary JSON texts
+   */
+  public JSONDocumentReader(ByteBuffer input) {
+    this(getTokenizer(input), null);
+  }
+
+  /**
+   * Constructs a new document reader for the tokens provided by the specified tokenizer. Tokenizers
+   * implementing {@link JSONTokenStream} are read without creating {@link Token} instances.
+   * 
+   * @param tokenizer The tokenizer providing the tokens of the input
+   */
+  public JSONDocumentReader(Iterator<? extends Token> tokenizer) {
+    this(tokenizer, null);
+  }
+
+  private JSONDocumentReader(Iterator<? extends Token> tokenizer, Closeable source) {
+    if (tokenizer == null) {
+      throw new IllegalArgumentException();
+    }
+
+    this.tokens = TokenIteratorStream.of(tokenizer);
+    this.source = source;
+  }
+
+  private static Iterator<Token> getTokenizer(ByteBuffer input) {
+    if (input == null) {
+      throw new IllegalArgumentException();
+    }
+
+    if (JSONLLParser.isUTF8(input)) {
+      return new JSONUTF8Tokenizer(input);
+    }
+
+    return new JSONTokenizer(JSONEncoding.newReader(input));
+  }
+
+  /**
+   * Returns the maximum nesting depth of objects and arrays. Reading a value
+   * exceeding this depth fails with a {@link ParserException}.
+   * 
+   * @return The maximum nesting depth
+   */
+  public int getMaxDepth() {
+    return parser.getMaxDepth();
+  }
+
+  /**
+   * Configures the maximum nesting depth of objects and arrays. Reading a value
+   * exceeding this depth fails with a {@link ParserException}.
+   * 
+   * @param value The maximum nesting depth, at least {@code 1}
+   */
+  public void setMaxDepth(int value) {
+    parser.setMaxDepth(value);
+  }
+
+  /**
+   * Returns if there is at least one more value. This method blocks until the first token of the
+   * next value or the end of the input is read.
+   * 
+   * @return If there is at least one more value
+   * @throws IOException If reading from the underlying reader fails
+   * @throws ParserException If reading an illegal character
+   */
+  public boolean hasNext() throws IOException, ParserException {
+    if (closed) {
+      return false;
+    }
+
+    if (pendingKind == NO_TOKEN) {
+      pendingKind = pullToken();
+    }
+
+    if (pendingKind == JSONTokenStream.END_OF_INPUT) {
+      closed = true;
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Reads the next value. The input is read up to the last token of the value.
+   * 
+   * @return The next value
+   * @throws IOException If reading from the underlying reader fails
+   * @throws ParserException If reading malformed data
+   * @throws NoSuchElementException If there are no more values
+   */
+  public JSONValue next() throws IOException, ParserException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    int current = pendingKind;
+    pendingKind = NO_TOKEN;
+    // a failed value leaves the stream in an unknown state
+    closed = true;
+
+    JSONValue value;
+    try {
+      value = parser.parseValue(tokens, current);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    closed = false;
+    position = tokens.getTokenEnd();
+    return value;
+  }
+
+  /**
+   * Returns the position following the last value returned by {@link #next()} in the input data,
+   * counted in characters for readers and in bytes for UTF-8 encoded buffers.
+   * 
+   * @return The position following the last value or {@code 0} if {@link #next()} was not called yet
+   */
+  public long getPosition() {
+    return position;
+  }
+
+  /**
+   * Closes the underlying reader, if the document reader was constructed for a {@link Reader}.
+   * 
+   * @throws IOException If closing the underlying reader fails
+   */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    if (source != null) {
+      source.close();
+    }
+  }
+
+  private int pullToken() throws IOException, ParserException {
+    try {
+      return JSONLLParser.nextKind(tokens);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    } catch (ParserException e) {
+      closed = true;
+      throw e;
+    }
+  }
+}
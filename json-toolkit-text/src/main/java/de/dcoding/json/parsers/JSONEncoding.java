@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helper class for detecting the encoding of binary JSON texts. RFC 8259, section 8.1
+ * requires UTF-8 for JSON texts exchanged between systems, so texts without a byte
+ * order mark or a recognized pattern are treated as UTF-8.
+ * <p>
+ * As a legacy tolerance for producers following the obsolete RFC 4627, UTF-16 and
+ * UTF-32 texts are still detected, either by a byte order mark or by the pattern of
+ * zero bytes in the first four bytes, which is unambiguous if the text starts with
+ * two ASCII characters.
+ * 
+ * @since  1.1
+ */
+public class JSONEncoding {
+  /**
+   * The UTF-32 big endian charset
+   */
+  public static final Charset UTF_32BE = Charset.forName("UTF-32BE");
+  /**
+   * The UTF-32 little endian charset
+   */
+  public static final Charset UTF_32LE = Charset.forName("UTF-32LE");
+
+  private static final int PATTERN_SIZE = 4;
+
+  private final Charset charset;
+  private final int byteOrderMarkLength;
+
+  private JSONEncoding(Charset charset, int byteOrderMarkLength) {
+    this.charset = charset;
+    this.byteOrderMarkLength = byteOrderMarkLength;
+  }
+
+  /**
+   * Returns the detected charset.
+   * 
+   * @return The charset
+   */
+  public Charset getCharset() {
+    return charset;
+  }
+
+  /**
+   * Returns the number of bytes of the byte order mark at the start of the input.
+   * 
+   * @return The length of the byte order mark, {@code 0} if there is none
+   */
+  public int getByteOrderMarkLength() {
+    return byteOrderMarkLength;
+  }
+
+  /**
+   * Detects the encoding of the specified leading bytes of a JSON text.
+   * 
+   * @param head The leading bytes of the input
+   * @param length The number of valid bytes in {@code head}, at most four are evaluated
+   * @return The detected encoding
+   */
+  public static JSONEncoding detect(byte[] head, int length) {
+    int b0 = (length > 0) ? (head[0] & 0xFF) : -1;
+    int b1 = (length > 1) ? (head[1] & 0xFF) : -1;
+    int b2 = (length > 2) ? (head[2] & 0xFF) : -1;
+    int b3 = (length > 3) ? (head[3] & 0xFF) : -1;
+
+    if ((b0 == 0xEF) && (b1 == 0xBB) && (b2 == 0xBF)) {
+      return new JSONEncoding(StandardCharsets.UTF_8, 3);
+    } else if ((b0 == 0x00) && (b1 == 0x00) && (b2 == 0xFE) && (b3 == 0xFF)) {
+      return new JSONEncoding(UTF_32BE, 4);
+    } else if ((b0 == 0xFF) && (b1 == 0xFE) && (b2 == 0x00) && (b3 == 0x00)) {
+      return new JSONEncoding(UTF_32LE, 4);
+    } else if ((b0 == 0xFE) && (b1 == 0xFF)) {
+      return new JSONEncoding(StandardCharsets.UTF_16BE, 2);
+    } else if ((b0 == 0xFF) && (b1 == 0xFE)) {
+      return new JSONEncoding(StandardCharsets.UTF_16LE, 2);
+    } else if ((b0 == 0x00) && (b1 == 0x00) && (b2 == 0x00) && (b3 > 0x00)) {
+      return new JSONEncoding(UTF_32BE, 0);
+    } else if ((b0 > 0x00) && (b1 == 0x00) && (b2 == 0x00) && (b3 == 0x00)) {
+      return new JSONEncoding(UTF_32LE, 0);
+    } else if ((b0 == 0x00) && (b1 > 0x00)) {
+      return new JSONEncoding(StandardCharsets.UTF_16BE, 0);
+    } else if ((b0 > 0x00) && (b1 == 0x00)) {
+      return new JSONEncoding(StandardCharsets.UTF_16LE, 0);
+    } else {
+      return new JSONEncoding(StandardCharsets.UTF_8, 0);
+    }
+  }
+
+  /**
+   * Creates a {@link Reader} decoding the specified stream with its detected encoding.
+   * A byte order mark is skipped and malformed input is reported as an {@link IOException}
+   * while reading. The stream is decoded in chunks and never read completely into memory.
+   * 
+   * @param input The stream containing a binary JSON text
+   * @return The reader for the decoded characters
+   * @throws IOException If reading the leading bytes fails
+   */
+  public static Reader newReader(InputStream input) throws IOException {
+    if (input == null) {
+      throw new IllegalArgumentException();
+    }
+
+    PushbackInputStream stream = new PushbackInputStream(input, PATTERN_SIZE);
+    byte[] head = new byte[PATTERN_SIZE];
+    int length = 0;
+    int count;
+
+    while ((length < PATTERN_SIZE) && ((count = stream.read(head, length, PATTERN_SIZE - length)) >= 0)) {
+      length += count;
+    }
+
+    JSONEncoding encoding = detect(head, length);
+    int byteOrderMarkLength = encoding.getByteOrderMarkLength();
+    stream.unread(head, byteOrderMarkLength, length - byteOrderMarkLength);
+
+    return new InputStreamReader(stream, encoding.newDecoder());
+  }
+
+  /**
+   * Creates a {@link Reader} decoding the remaining bytes of the specified buffer with
+   * their detected encoding. The position of the specified buffer is not changed.
+   * 
+   * @param input The buffer containing a binary JSON text
+   * @return The reader for the decoded characters
+   */
+  public static Reader newReader(ByteBuffer input) {
+    if (input == null) {
+      throw new IllegalArgumentException();
+    }
+
+    try {
+      return newReader(new ByteBufferInputStream(input.duplicate()));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private CharsetDecoder newDecoder() {
+    return charset.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPORT)
+      .onUnmappableCharacter(CodingErrorAction.REPORT);
+  }
+
+  private static class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      } else if (!buffer.hasRemaining()) {
+        return -1;
+      }
+
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(target, offset, count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+/**
+ * The kinds of events reported by a {@link JSONEventReader}
+ * 
+ * @since  1.1
+ */
+public enum JSONEvent {
+  /**
+   * The start of an object, a <code>{</code> in the input
+   */
+  START_OBJECT,
+
+  /**
+   * The end of an object, a <code>}</code> in the input
+   */
+  END_OBJECT,
+
+  /**
+   * The start of an array, a <code>[</code> in the input
+   */
+  START_ARRAY,
+
+  /**
+   * The end of an array, a <code>]</code> in the input
+   */
+  END_ARRAY,
+
+  /**
+   * The name of an object member, always followed by the event of the member value
+   */
+  FIELD_NAME,
+
+  /**
+   * A string value
+   */
+  VALUE_STRING,
+
+  /**
+   * A number value
+   */
+  VALUE_NUMBER,
+
+  /**
+   * The literal <code>true</code>
+   */
+  VALUE_TRUE,
+
+  /**
+   * The literal <code>false</code>
+   */
+  VALUE_FALSE,
+
+  /**
+   * The literal <code>null</code>
+   */
+  VALUE_NULL
+}
@@ -0,0 +1,541 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import de.dcoding.json.*;
+import de.dcoding.parsers.ParserException;
+import de.dcoding.parsers.Token;
+
+/**
+ * Pull based reader reporting a JSON text as a sequence of {@link JSONEvent}s instead of building
+ * a tree of {@link JSONValue}s. The tokens are pulled from the {@link JSONTokenStream} on demand, so the
+ * reader only holds the current token and one flag per open object or array at any time.
+ * <p>
+ * The values of the current event are available by the typed accessors like {@link #getString()}
+ * and are only converted when requested. Uninteresting objects and arrays can be passed over with
+ * {@link #skipChildren()}, interesting ones can be materialized with {@link #readValue()}.
+ * 
+ * @since  1.1
+ */
+public class JSONEventReader {
+  private static final int VALUE = 0;
+  private static final int FIRST_ELEMENT = 1;
+  private static final int FIRST_MEMBER = 2;
+  private static final int MEMBER = 3;
+  private static final int NAME_SEPARATOR = 4;
+  private static final int VALUE_END = 5;
+  private static final int DOCUMENT_END = 6;
+  private static final int CLOSED = 7;
+  private static final int NO_TOKEN = -1;
+
+  private final StringCache keyCache = new StringCache();
+  private JSONTokenStream tokens;
+  private int maxDepth = JSONLLParser.DEFAULT_MAX_DEPTH;
+  private boolean validatingSkippedChildren = true;
+  private boolean[] objects = new boolean[16];
+  private int depth;
+  private int state = VALUE;
+  private int pendingKind = NO_TOKEN;
+  private JSONEvent event;
+  private long eventPosition;
+  private char[] valueChars;
+  private int valueOffset;
+  private int valueLength;
+
+  /**
+   * Constructs a new event reader for the specified textual JSON representation.
+   * 
+   * @param input The textual JSON representation
+   */
+  public JSONEventReader(String input) {
+    this(new JSONTokenizer(input));
+  }
+
+  /**
+   * Constructs a new event reader for the textual JSON representation which is read incrementally
+   * from the specified {@link Reader}.
+   * 
+   * @param input The reader providing the textual JSON representation
+   */
+  public JSONEventReader(Reader input) {
+    this(new JSONTokenizer(input));
+  }
+
+  /**
+   * Constructs a new event reader for the remaining bytes of the specified buffer. UTF-8 encoded input
+   * is tokenized directly on the bytes by a {@link JSONUTF8Tokenizer}, other encodings are detected and
+   * decoded by {@link JSONEncoding}. The position of the buffer is not changed.
+   * 
+   * @param input The buffer containing the binary JSON text
+   */
+  public JSONEventReader(ByteBuffer input) {
+    this(getTokenizer(input));
+  }
+
+  /**
+   * Constructs a new event reader for the tokens provided by the specified tokenizer. Tokenizers
+   * implementing {@link JSONTokenStream} are read without creating {@link Token} instances.
+   * 
+   * @param tokenizer The tokenizer providing the tokens of the input
+   */
+  public JSONEventReader(Iterator<? extends Token> tokenizer) {
+    if (tokenizer == null) {
+      throw new IllegalArgumentException();
+    }
+
+    tokens = TokenIteratorStream.of(tokenizer);
+  }
+
+  private static Iterator<Token> getTokenizer(ByteBuffer input) {
+    if (input == null) {
+      throw new IllegalArgumentException();
+    }
+
+    if (JSONLLParser.isUTF8(input)) {
+      return new JSONUTF8Tokenizer(input);
+    }
+
+    return new JSONTokenizer(JSONEncoding.newReader(input));
+  }
+
+  /**
+   * Returns the maximum nesting depth of objects and arrays. Reading an input
+   * exceeding this depth fails with a {@link ParserException}.
+   * 
+   * @return The maximum nesting depth
+   */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Configures the maximum nesting depth of objects and arrays. Reading an input
+   * exceeding this depth fails with a {@link ParserException}.
+   * 
+   * @param value The maximum nesting depth, at least {@code 1}
+   */
+  public void setMaxDepth(int value) {
+    if (value < 1) {
+      throw new IllegalArgumentException();
+    }
+
+    maxDepth = value;
+  }
+
+  /**
+   * Returns if the children skipped by {@link #skipChildren()} are validated. Defaults to {@code true}.
+   * 
+   * @return If skipped children are validated
+   */
+  public boolean isValidatingSkippedChildren() {
+    return validatingSkippedChildren;
+  }
+
+  /**
+   * Configures if the children skipped by {@link #skipChildren()} are validated. Without validation,
+   * they are passed over by {@link JSONTokenStream#skipContainer()}, which only tracks the nesting
+   * depth of brackets and the boundaries of strings. Malformed children are then only detected if
+   * their brackets are unbalanced.
+   * 
+   * @param value If skipped children are validated
+   */
+  public void setValidatingSkippedChildren(boolean value) {
+    validatingSkippedChildren = value;
+  }
+
+  /**
+   * Returns if there is at least one more event. An input without any tokens has no events.
+   * 
+   * @return If there is at least one more event
+   * @throws IOException If reading from the underlying reader fails
+   * @throws ParserException If a token follows the end of the value
+   */
+  public boolean hasNext() throws IOException, ParserException {
+    if (state == CLOSED) {
+      return false;
+    }
+
+    if ((state == DOCUMENT_END) || ((state == VALUE) && (event == null))) {
+      int next = peekToken();
+      if (next == JSONTokenStream.END_OF_INPUT) {
+        state = CLOSED;
+        return false;
+      }
+
+      if (state == DOCUMENT_END) {
+        String message = String.format("Unexpected token found after value: %s", JSONLLParser.getTokenName(next));
+        throw new ParserException(message);
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Advances to the next event. Separators are validated but not reported.
+   * 
+   * @return The next event
+   * @throws IOException If reading from the underlying reader fails
+   * @throws ParserException If reading malformed data
+   * @throws NoSuchElementException If there are no more events
+   */
+  public JSONEvent next() throws IOException, ParserException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    int current = nextToken();
+
+    while (true) {
+      switch (state) {
+        case FIRST_ELEMENT:
+          if (current == JSONTokenStream.END_ARRAY) {
+            return endContainer(JSONEvent.END_ARRAY);
+          }
+          return startValue(current);
+        case VALUE:
+          return startValue(current);
+        case FIRST_MEMBER:
+          if (current == JSONTokenStream.END_OBJECT) {
+            return endContainer(JSONEvent.END_OBJECT);
+          }
+          return startMember(current);
+        case MEMBER:
+          return startMember(current);
+        case NAME_SEPARATOR:
+          if (current != JSONTokenStream.NAME_SEPARATOR) {
+            String message = String.format("Expected token: JSONNameSeparatorToken. Found: %s", JSONLLParser.getTokenName(current));
+            throw new ParserException(message);
+          }
+          state = VALUE;
+          current = nextToken();
+          break;
+        default:
+          if (current == JSONTokenStream.VALUE_SEPARATOR) {
+            state = isInObject() ? MEMBER : VALUE;
+            current = nextToken();
+          } else if (isInObject() && (current == JSONTokenStream.END_OBJECT)) {
+            return endContainer(JSONEvent.END_OBJECT);
+          } else if (!isInObject() && (current == JSONTokenStream.END_ARRAY)) {
+            return endContainer(JSONEvent.END_ARRAY);
+          } else {
+            String expected = isInObject() ? "JSONEndObjectToken" : "JSONEndArrayToken";
+            String message = String.format("Expected token: %s. Found: %s", expected, JSONLLParser.getTokenName(current));
+            throw new ParserException(message);
+          }
+      }
+    }
+  }
+
+  /**
+   * Returns the current event.
+   * 
+   * @return The current event or {@code null} if {@link #next()} was not called yet
+   */
+  public JSONEvent getEvent() {
+    return event;
+  }
+
+  /**
+   * Returns the number of objects and arrays which are open after the current event.
+   * 
+   * @return The current nesting depth
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Returns the start position of the current event in the input data.
+   * 
+   * @return The start position of the current event
+   * @throws IllegalStateException If {@link #next()} was not called yet
+   */
+  public long getPosition() {
+    if (event == null) {
+      throw new IllegalStateException();
+    }
+
+    return eventPosition;
+  }
+
+  /**
+   * Returns the unescaped member name of a {@link JSONEvent#FIELD_NAME} event or the unescaped value
+   * of a {@link JSONEvent#VALUE_STRING} event. Repeated member names are returned as the same
+   * {@link String} instance.
+   * 
+   * @return The member name or the string value
+   * @throws IllegalStateException If the current event is neither a member name nor a string value
+   */
+  public String getString() {
+    if ((event != JSONEvent.FIELD_NAME) && (event != JSONEvent.VALUE_STRING)) {
+      throw new IllegalStateException();
+    }
+
+    StringCache cache = (event == JSONEvent.FIELD_NAME) ? keyCache : null;
+    return JSONLLParser.unescapeString(valueChars, valueOffset, valueLength, cache);
+  }
+
+  /**
+   * Returns the value of a {@link JSONEvent#VALUE_NUMBER} event.
+   * 
+   * @return The number value
+   * @throws IllegalStateException If the current event is not a number value
+   */
+  public JSONNumber getNumber() {
+    if (event != JSONEvent.VALUE_NUMBER) {
+      throw new IllegalStateException();
+    }
+
+    return new JSONNumber(new String(valueChars, valueOffset, valueLength));
+  }
+
+  /**
+   * Returns the value of a {@link JSONEvent#VALUE_TRUE} or {@link JSONEvent#VALUE_FALSE} event.
+   * 
+   * @return The boolean value
+   * @throws IllegalStateException If the current event is not a boolean value
+   */
+  public boolean getBoolean() {
+    if ((event != JSONEvent.VALUE_TRUE) && (event != JSONEvent.VALUE_FALSE)) {
+      throw new IllegalStateException();
+    }
+
+    return (event == JSONEvent.VALUE_TRUE);
+  }
+
+  /**
+   * Skips all events of the object or array started by the current event, afterwards the current
+   * event is the matching {@link JSONEvent#END_OBJECT} or {@link JSONEvent#END_ARRAY}. For all other
+   * events nothing is skipped. The skipped values are not converted and are only validated
+   * if configured by {@link #setValidatingSkippedChildren(boolean)}.
+   * 
+   * @throws IOException If reading from the underlying reader fails
+   * @throws ParserException If reading malformed data
+   */
+  public void skipChildren() throws IOException, ParserException {
+    if ((event != JSONEvent.START_OBJECT) && (event != JSONEvent.START_ARRAY)) {
+      return;
+    }
+
+    if (validatingSkippedChildren || (pendingKind != NO_TOKEN)) {
+      int parentDepth = depth - 1;
+      do {
+        next();
+      } while (depth > parentDepth);
+      return;
+    }
+
+    boolean object = (event == JSONEvent.START_OBJECT);
+    int kind;
+    try {
+      kind = tokens.skipContainer();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    if (kind == JSONTokenStream.ERROR) {
+      String message = String.format("Illegal character at position: %d", tokens.getTokenStart());
+      throw new ParserException(message);
+    }
+
+    if (kind != (object ? JSONTokenStream.END_OBJECT : JSONTokenStream.END_ARRAY)) {
+      String expected = object ? "JSONEndObjectToken" : "JSONEndArrayToken";
+      String message = String.format("Expected token: %s. Found: %s", expected, JSONLLParser.getTokenName(kind));
+      throw new ParserException(message);
+    }
+
+    endContainer(object ? JSONEvent.END_OBJECT : JSONEvent.END_ARRAY);
+  }
+
+  /**
+   * Converts the value of the current event into a {@link JSONValue}. If the current event starts
+   * an object or array, all of its events are read and afterwards the current event is the matching
+   * {@link JSONEvent#END_OBJECT} or {@link JSONEvent#END_ARRAY}.
+   * 
+   * @return The value of the current event
+   * @throws IOException If reading from the underlying reader fails
+   * @throws ParserException If reading malformed data
+   * @throws IllegalStateException If the current event is neither a value nor the start of a value
+   */
+  public JSONValue readValue() throws IOException, ParserException {
+    if ((event == null) || (event == JSONEvent.FIELD_NAME) || (event == JSONEvent.END_OBJECT) || (event == JSONEvent.END_ARRAY)) {
+      throw new IllegalStateException();
+    }
+
+    JSONTreeBuilder builder = new JSONTreeBuilder();
+    int parentDepth = ((event == JSONEvent.START_OBJECT) || (event == JSONEvent.START_ARRAY)) ? depth - 1 : depth;
+
+    reportEvent(builder);
+    while (depth > parentDepth) {
+      next();
+      reportEvent(builder);
+    }
+
+    return builder.getValue();
+  }
+
+  private void reportEvent(JSONHandler handler) {
+    switch (event) {
+      case START_OBJECT:
+        handler.startObject();
+        break;
+      case END_OBJECT:
+        handler.endObject();
+        break;
+      case START_ARRAY:
+        handler.startArray();
+        break;
+      case END_ARRAY:
+        handler.endArray();
+        break;
+      case FIELD_NAME:
+        handler.key(getString());
+        break;
+      case VALUE_STRING:
+        handler.stringValue(getString());
+        break;
+      case VALUE_NUMBER:
+        handler.numberValue(CharBuffer.wrap(valueChars, valueOffset, valueLength));
+        break;
+      case VALUE_TRUE:
+        handler.booleanValue(true);
+        break;
+      case VALUE_FALSE:
+        handler.booleanValue(false);
+        break;
+      default:
+        handler.nullValue();
+        break;
+    }
+  }
+
+  private JSONEvent startValue(int current) throws ParserException {
+    switch (current) {
+      case JSONTokenStream.BEGIN_OBJECT:
+        pushContainer(true);
+        state = FIRST_MEMBER;
+        return setEvent(JSONEvent.START_OBJECT);
+      case JSONTokenStream.BEGIN_ARRAY:
+        pushContainer(false);
+        state = FIRST_ELEMENT;
+        return setEvent(JSONEvent.START_ARRAY);
+      case JSONTokenStream.STRING:
+        return endValue(JSONEvent.VALUE_STRING);
+      case JSONTokenStream.NUMBER:
+        return endValue(JSONEvent.VALUE_NUMBER);
+      case JSONTokenStream.TRUE:
+        return endValue(JSONEvent.VALUE_TRUE);
+      case JSONTokenStream.FALSE:
+        return endValue(JSONEvent.VALUE_FALSE);
+      case JSONTokenStream.NULL:
+        return endValue(JSONEvent.VALUE_NULL);
+      default:
+        String message = String.format("Unexpected token found: %s", JSONLLParser.getTokenName(current));
+        throw new ParserException(message);
+    }
+  }
+
+  private JSONEvent startMember(int current) throws ParserException {
+    if (current != JSONTokenStream.STRING) {
+      String message = String.format("Expected token: JSONStringToken. Found: %s", JSONLLParser.getTokenName(current));
+      throw new ParserException(message);
+    }
+
+    state = NAME_SEPARATOR;
+    return setEvent(JSONEvent.FIELD_NAME);
+  }
+
+  private JSONEvent endContainer(JSONEvent value) {
+    depth--;
+    return endValue(value);
+  }
+
+  private JSONEvent endValue(JSONEvent value) {
+    state = (depth == 0) ? DOCUMENT_END : VALUE_END;
+    return setEvent(value);
+  }
+
+  private JSONEvent setEvent(JSONEvent value) {
+    event = value;
+    eventPosition = tokens.getTokenStart();
+    valueChars = tokens.getValueChars();
+    valueOffset = tokens.getValueOffset();
+    valueLength = tokens.getValueLength();
+    return value;
+  }
+
+  private boolean isInObject() {
+    return objects[depth - 1];
+  }
+
+  private void pushContainer(boolean object) throws ParserException {
+    if (depth == maxDepth) {
+      String message = String.format("Maximum nesting depth of %d exceeded at position: %d", maxDepth, tokens.getTokenStart());
+      throw new ParserException(message);
+    }
+
+    if (depth == objects.length) {
+      boolean[] enlarged = new boolean[depth << 1];
+      System.arraycopy(objects, 0, enlarged, 0, depth);
+      objects = enlarged;
+    }
+
+    objects[depth++] = object;
+  }
+
+  private int peekToken() throws IOException, ParserException {
+    if (pendingKind == NO_TOKEN) {
+      // the characters of the current event are overwritten by the following token
+      if (valueLength > 0) {
+        valueChars = Arrays.copyOfRange(valueChars, valueOffset, valueOffset + valueLength);
+        valueOffset = 0;
+      }
+
+      pendingKind = pullToken();
+    }
+
+    return pendingKind;
+  }
+
+  private int nextToken() throws IOException, ParserException {
+    if (pendingKind != NO_TOKEN) {
+      int next = pendingKind;
+      pendingKind = NO_TOKEN;
+      return next;
+    }
+
+    return pullToken();
+  }
+
+  private int pullToken() throws IOException, ParserException {
+    try {
+      return JSONLLParser.nextKind(tokens);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+}
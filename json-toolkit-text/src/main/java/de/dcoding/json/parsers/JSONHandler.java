@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+/**
+ * Callback interface receiving the structure and values of a JSON text while it is parsed by
+ * {@link JSONLLParser#parse(String, JSONHandler)}, without building a tree of {@link de.dcoding.json.JSONValue}s.
+ * <p>
+ * The {@link CharSequence} arguments may be views of the parser's internal buffers and are only
+ * valid until the callback returns. Implementations have to call {@link CharSequence#toString()}
+ * to keep a value. All methods have empty default implementations, so a handler only needs to
+ * implement the callbacks it is interested in.
+ * 
+ * @since  1.1
+ */
+public interface JSONHandler {
+  /**
+   * Called at the start of an object.
+   */
+  default void startObject() {
+  }
+
+  /**
+   * Called at the end of an object.
+   */
+  default void endObject() {
+  }
+
+  /**
+   * Called at the start of an array.
+   */
+  default void startArray() {
+  }
+
+  /**
+   * Called at the end of an array.
+   */
+  default void endArray() {
+  }
+
+  /**
+   * Called with the unescaped name of an object member, always followed by the callbacks of the member value.
+   * 
+   * @param name The member name, only valid until the method returns
+   */
+  default void key(CharSequence name) {
+  }
+
+  /**
+   * Called with the unescaped value of a string.
+   * 
+   * @param value The string value, only valid until the method returns
+   */
+  default void stringValue(CharSequence value) {
+  }
+
+  /**
+   * Called with the textual representation of a number.
+   * 
+   * @param value The number as it occurs in the input, only valid until the method returns
+   */
+  default void numberValue(CharSequence value) {
+  }
+
+  /**
+   * Called with the value of the literals <code>true</code> and <code>false</code>.
+   * 
+   * @param value The boolean value
+   */
+  default void booleanValue(boolean value) {
+  }
+
+  /**
+   * Called for the literal <code>null</code>.
+   */
+  default void nullValue() {
+  }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import de.dcoding.json.*;
+import de.dcoding.parsers.ParserException;
+
+/**
+ * Index of the objects and arrays of a textual JSON representation. A single structural scan of the
+ * input string records the positions of the beginning and the end of every object and array, tracking
+ * only the nesting of brackets and the boundaries of strings. The members and elements of an object or
+ * array are validated and read from the input string on its first access, nested objects and arrays
+ * are skipped by their recorded end.
+ * <p>
+ * Reading from the index is safe for concurrent use.
+ * 
+ * @since  1.1
+ */
+class JSONIndex {
+  private static final String TRUE_LITERAL = "true";
+  private static final String FALSE_LITERAL = "false";
+  private static final String NULL_LITERAL = "null";
+
+  private final String input;
+  private final int length;
+  private final StringCache keyCache = new StringCache();
+  private int[] starts = new int[16];
+  private int[] ends = new int[16];
+  private int count;
+
+  private JSONIndex(String input) {
+    this.input = input;
+    this.length = input.length();
+  }
+
+  /**
+   * Scans the structure of the specified input and returns its root value. Objects and arrays are
+   * returned as lazy instances reading their content from the index on first access, other values
+   * are validated and converted immediately. The input must contain at least one token.
+   * 
+   * @throws ParserException If the brackets or strings are not closed, the maximum depth is exceeded
+   *         or the root value is malformed or followed by further characters
+   */
+  static JSONValue parse(String input, int maxDepth) throws ParserException {
+    JSONIndex index = new JSONIndex(input);
+    int start = index.skipWhitespace(0);
+    char first = input.charAt(start);
+    int end = ((first == '{') || (first == '[')) ? index.scanContainers(start, maxDepth) : index.getValueEnd(start);
+    JSONValue value = index.createValue(start, end);
+
+    int next = index.skipWhitespace(end);
+    if (next < index.length) {
+      throw illegalCharacter(next);
+    }
+
+    return value;
+  }
+
+  /**
+   * Reads the members of the object starting at the specified position into the specified map.
+   */
+  void readMembers(int position, Map<String, JSONValue> members) throws ParserException {
+    int index = skipWhitespace(position + 1);
+    if (input.charAt(index) == '}') {
+      return;
+    }
+
+    while (true) {
+      if (input.charAt(index) != '"') {
+        throw illegalCharacter(index);
+      }
+      int nameEnd = getStringEnd(index);
+      String name = readString(index, nameEnd, keyCache);
+
+      index = skipWhitespace(nameEnd);
+      if (input.charAt(index) != ':') {
+        throw illegalCharacter(index);
+      }
+      index = skipWhitespace(index + 1);
+      int valueEnd = getValueEnd(index);
+      members.put(name, createValue(index, valueEnd));
+
+      index = skipWhitespace(valueEnd);
+      if (input.charAt(index) == '}') {
+        return;
+      } else if (input.charAt(index) != ',') {
+        throw illegalCharacter(index);
+      }
+      index = skipWhitespace(index + 1);
+    }
+  }
+
+  /**
+   * Reads the elements of the array starting at the specified position into the specified list.
+   */
+  void readElements(int position, List<JSONValue> elements) throws ParserException {
+    int index = skipWhitespace(position + 1);
+    if (input.charAt(index) == ']') {
+      return;
+    }
+
+    while (true) {
+      int valueEnd = getValueEnd(index);
+      elements.add(createValue(index, valueEnd));
+
+      index = skipWhitespace(valueEnd);
+      if (input.charAt(index) == ']') {
+        return;
+      } else if (input.charAt(index) != ',') {
+        throw illegalCharacter(index);
+      }
+      index = skipWhitespace(index + 1);
+    }
+  }
+
+  /**
+   * Records the positions of the object or array starting at the specified position and of all
+   * nested ones. Only brackets and the quotation marks and escapes of strings are looked at.
+   * 
+   * @return The position following the object or array
+   */
+  private int scanContainers(int start, int maxDepth) throws ParserException {
+    int[] open = new int[16];
+    int depth = 0;
+    int index = start;
+
+    while (index < length) {
+      char character = input.charAt(index);
+
+      if (character == '"') {
+        index = skipString(index);
+        continue;
+      } else if ((character == '{') || (character == '[')) {
+        if (depth == maxDepth) {
+          String message = String.format("Maximum nesting depth of %d exceeded at position: %d", maxDepth, index);
+          throw new ParserException(message);
+        }
+        if (depth == open.length) {
+          open = Arrays.copyOf(open, depth << 1);
+        }
+        open[depth++] = addContainer(index);
+      } else if ((character == '}') || (character == ']')) {
+        int container = open[--depth];
+        if ((input.charAt(starts[container]) == '{') != (character == '}')) {
+          throw illegalCharacter(index);
+        }
+        ends[container] = index;
+        if (depth == 0) {
+          return index + 1;
+        }
+      }
+      index++;
+    }
+
+    throw unexpectedEndOfInput();
+  }
+
+  private int addContainer(int position) {
+    if (count == starts.length) {
+      starts = Arrays.copyOf(starts, count << 1);
+      ends = Arrays.copyOf(ends, count << 1);
+    }
+
+    starts[count] = position;
+    return count++;
+  }
+
+  private int skipString(int start) throws ParserException {
+    int index = start + 1;
+
+    while (index < length) {
+      char character = input.charAt(index);
+      if (character == '"') {
+        return index + 1;
+      }
+      index += (character == '\\') ? 2 : 1;
+    }
+
+    throw unexpectedEndOfInput();
+  }
+
+  private JSONValue createValue(int start, int end) throws ParserException {
+    switch (input.charAt(start)) {
+      case '{':
+        return new LazyJSONObject(this, start);
+      case '[':
+        return new LazyJSONArray(this, start);
+      case '"':
+        return new JSONString(readString(start, end, null));
+      case 't':
+        return new JSONTrue();
+      case 'f':
+        return new JSONFalse();
+      case 'n':
+        return new JSONNull();
+      default:
+        try {
+          return new JSONNumber(input.substring(start, end));
+        } catch (IllegalArgumentException e) {
+          throw illegalCharacter(start);
+        }
+    }
+  }
+
+  /**
+   * Returns the end of the value starting at the specified position. Strings and literals are
+   * validated, numbers are validated when they are converted.
+   */
+  private int getValueEnd(int start) throws ParserException {
+    switch (input.charAt(start)) {
+      case '{':
+      case '[':
+        return ends[Arrays.binarySearch(starts, 0, count, start)] + 1;
+      case '"':
+        return getStringEnd(start);
+      case 't':
+        return getLiteralEnd(start, TRUE_LITERAL);
+      case 'f':
+        return getLiteralEnd(start, FALSE_LITERAL);
+      case 'n':
+        return getLiteralEnd(start, NULL_LITERAL);
+      case '-':
+      case '0':
+      case '1':
+      case '2':
+      case '3':
+      case '4':
+      case '5':
+      case '6':
+      case '7':
+      case '8':
+      case '9':
+        int index = start + 1;
+        while ((index < length) && isNumberCharacter(input.charAt(index))) {
+          index++;
+        }
+        return index;
+      default:
+        throw illegalCharacter(start);
+    }
+  }
+
+  private int getLiteralEnd(int start, String literal) throws ParserException {
+    if (!input.startsWith(literal, start)) {
+      throw illegalCharacter(start);
+    }
+
+    return start + literal.length();
+  }
+
+  private int getStringEnd(int start) throws ParserException {
+    int index = start + 1;
+
+    while (index < length) {
+      char character = input.charAt(index);
+
+      if (character == '"') {
+        return index + 1;
+      } else if (character == '\\') {
+        index = getEscapeSequenceEnd(index);
+      } else if (character < 0x20) {
+        throw illegalCharacter(index);
+      } else {
+        index++;
+      }
+    }
+
+    throw unexpectedEndOfInput();
+  }
+
+  private int getEscapeSequenceEnd(int start) throws ParserException {
+    int index = start + 1;
+    if (index == length) {
+      throw unexpectedEndOfInput();
+    }
+
+    switch (input.charAt(index)) {
+      case '"':
+      case '\\':
+      case '/':
+      case 'b':
+      case 'f':
+      case 'n':
+      case 'r':
+      case 't':
+        return index + 1;
+      case 'u':
+        for (int i = index + 1, j = index + 5; i < j; i++) {
+          if ((i == length) || (Character.digit(input.charAt(i), 16) < 0)) {
+            throw illegalCharacter(start);
+          }
+        }
+        return index + 5;
+      default:
+        throw illegalCharacter(start);
+    }
+  }
+
+  /**
+   * Returns the unescaped content of the validated string between the specified positions.
+   */
+  private String readString(int start, int end, StringCache cache) {
+    if (cache == null) {
+      int index = start + 1;
+      while ((index < end) && (input.charAt(index) != '\\')) {
+        index++;
+      }
+      if (index == end) {
+        return input.substring(start + 1, end - 1);
+      }
+    }
+
+    char[] chars = new char[end - start];
+    input.getChars(start, end, chars, 0);
+    return JSONLLParser.unescapeString(chars, 0, chars.length, cache);
+  }
+
+  private int skipWhitespace(int start) {
+    int index = start;
+    while ((index < length) && isWhitespace(input.charAt(index))) {
+      index++;
+    }
+
+    return index;
+  }
+
+  private static ParserException illegalCharacter(int position) {
+    return new ParserException(String.format("Illegal character at position: %d", position));
+  }
+
+  private static ParserException unexpectedEndOfInput() {
+    return new ParserException(String.format("Unexpected token found: %s", JSONLLParser.getTokenName(JSONTokenStream.END_OF_INPUT)));
+  }
+
+  private static boolean isNumberCharacter(char character) {
+    return ((character >= '0') && (character <= '9')) || (character == '.') || (character == 'e')
+        || (character == 'E') || (character == '+') || (character == '-');
+  }
+
+  private static boolean isWhitespace(char character) {
+    return (character == ' ') || (character == '\t') || (character == '\n') || (character == '\r');
+  }
+}
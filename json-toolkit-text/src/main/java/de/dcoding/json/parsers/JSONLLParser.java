@@ -16,8 +16,19 @@
 
 package de.dcoding.json.parsers;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
 
 import de.dcoding.json.*;
 import de.dcoding.json.tokens.*;
@@ -25,17 +36,122 @@ import de.dcoding.parsers.*;
 
 /**
  * Implementation of an LL parser for parsing a JSON string representation to objects
+ * <p>
+ * Instances can be shared by several threads parsing at the same time. The state of a parsing
+ * process is held per call, and the reusable buffers for unescaped strings and open containers
+ * are held per thread. The configuration should not be changed while the instance is shared.
  * 
  * @since  1.0
  */
 public class JSONLLParser extends LLParser<JSONValue> {
-  private static final Pattern UNICODE_PATTERN = Pattern.compile("\\\\u([0-9a-fA-F]{4})");
+  /**
+   * The default maximum nesting depth of objects and arrays
+   * 
+   * @since 1.1
+   */
+  public static final int DEFAULT_MAX_DEPTH = 512;
+
+  private static final String[] TOKEN_NAMES = {
+    "end of input", "JSONBeginObjectToken", "JSONEndObjectToken", "JSONBeginArrayToken", "JSONEndArrayToken",
+    "JSONNameSeparatorToken", "JSONValueSeparatorToken", "JSONStringToken", "JSONNumberToken", "JSONTrueToken",
+    "JSONFalseToken", "JSONNullToken", "JSONWhitespaceToken", "ErrorToken"
+  };
+
+  private final StringCache stringCache = new StringCache();
+  private int maxDepth;
+  private boolean cachingKeys = true;
+  private boolean cachingStringValues;
   
   /**
-   * Constructs a new instance of a {@link LLParser} for {@link JSONValue}s with a lookahead of 1.
+   * Constructs a new instance of a {@link LLParser} for {@link JSONValue}s with a lookahead of 1
+   * and the default maximum nesting depth.
    */
   public JSONLLParser() {
+    this(DEFAULT_MAX_DEPTH);
+  }
+
+  /**
+   * Constructs a new instance of a {@link LLParser} for {@link JSONValue}s with a lookahead of 1
+   * and the specified maximum nesting depth.
+   * 
+   * @since 1.1
+   * @param maxDepth The maximum nesting depth of objects and arrays
+   */
+  public JSONLLParser(int maxDepth) {
     super(1);
+    setMaxDepth(maxDepth);
+  }
+
+  /**
+   * Returns the maximum nesting depth of objects and arrays. Parsing an input
+   * exceeding this depth fails with a {@link ParserException}.
+   * 
+   * @since 1.1
+   * @return The maximum nesting depth
+   */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Configures the maximum nesting depth of objects and arrays. Parsing an input
+   * exceeding this depth fails with a {@link ParserException}.
+   * 
+   * @since 1.1
+   * @param value The maximum nesting depth, at least {@code 1}
+   */
+  public void setMaxDepth(int value) {
+    if (value < 1) {
+      throw new IllegalArgumentException();
+    }
+
+    maxDepth = value;
+  }
+
+  /**
+   * Returns whether member names are cached. Repeated member names are then represented by one
+   * {@link String} instance each, as returned by {@link CharSequence#toString()} of the names passed
+   * to {@link JSONHandler#key(CharSequence)}. Enabled by default.
+   * 
+   * @since 1.1
+   * @return {@code true} if member names are cached
+   */
+  public boolean isCachingKeys() {
+    return cachingKeys;
+  }
+
+  /**
+   * Configures whether member names are cached.
+   * 
+   * @since 1.1
+   * @param value {@code true} to cache member names
+   * @see #isCachingKeys()
+   */
+  public void setCachingKeys(boolean value) {
+    cachingKeys = value;
+  }
+
+  /**
+   * Returns whether short string values are cached like member names. This reduces the retained
+   * memory of documents repeating the same values, like enumerations, but slows down parsing of
+   * documents with mostly distinct values. Disabled by default.
+   * 
+   * @since 1.1
+   * @return {@code true} if short string values are cached
+   */
+  public boolean isCachingStringValues() {
+    return cachingStringValues;
+  }
+
+  /**
+   * Configures whether short string values are cached like member names.
+   * 
+   * @since 1.1
+   * @param value {@code true} to cache short string values
+   * @see #isCachingStringValues()
+   */
+  public void setCachingStringValues(boolean value) {
+    cachingStringValues = value;
   }
   
   /**
@@ -47,13 +163,264 @@ public class JSONLLParser extends LLParser<JSONValue> {
    */
   @Override
   public JSONValue parse(String input) throws ParserException {
-    if ((input == null) || input.matches("^\\s*$")) {
+    if ((input == null) || isBlank(input)) {
       return null;
     } else {
       return super.parse(input);
     }
   }
 
+  /**
+   * Parse the given input and report its structure and values to the specified {@link JSONHandler}
+   * instead of building {@link JSONValue} instances. An input without any tokens results in no callbacks.
+   * 
+   * @since 1.1
+   * @param input The input string that will be parsed
+   * @param handler The handler receiving the callbacks
+   * @throws ParserException If parsing malformed data
+   */
+  public void parse(String input, JSONHandler handler) throws ParserException {
+    if (handler == null) {
+      throw new IllegalArgumentException();
+    }
+
+    if ((input == null) || isBlank(input)) {
+      return;
+    }
+
+    parse(getTokenizer(input), handler);
+  }
+
+  /**
+   * Parse the characters of the given reader and report their structure and values to the specified
+   * {@link JSONHandler} instead of building {@link JSONValue} instances. An input without any tokens
+   * results in no callbacks.
+   * 
+   * @since 1.1
+   * @param input The reader providing the input that will be parsed
+   * @param handler The handler receiving the callbacks
+   * @throws IOException If reading from the reader fails
+   * @throws ParserException If parsing malformed data
+   */
+  public void parse(Reader input, JSONHandler handler) throws IOException, ParserException {
+    if (handler == null) {
+      throw new IllegalArgumentException();
+    }
+
+    if (input == null) {
+      return;
+    }
+
+    try {
+      parse(getTokenizer(input), handler);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Parse the given input into a {@link JSONValue} instance whose objects and arrays are read lazily.
+   * Before returning, the input is only scanned for the positions of its objects and arrays, checking
+   * the nesting of brackets, the termination of strings and the maximum depth. The members and elements
+   * are validated and converted into {@link JSONValue}s on the first access of their object or array,
+   * so reading a few values of a large document skips the rest. A malformed member or element makes
+   * this access fail with an {@link IllegalStateException} caused by a {@link ParserException}.
+   * Until all objects and arrays are accessed, the returned value retains the input string.
+   * 
+   * @since 1.1
+   * @param input The input string that will be parsed
+   * @return The parsed object or {@code null} if the input contains no tokens
+   * @throws ParserException If the structure of the input or a root value other than an object or
+   *         array is malformed
+   */
+  public JSONValue parseLazily(String input) throws ParserException {
+    if ((input == null) || isBlank(input)) {
+      return null;
+    }
+
+    return JSONIndex.parse(input, maxDepth);
+  }
+
+  /**
+   * Parse the given binary JSON text into a {@link JSONValue} instance. UTF-8 encoded input is
+   * tokenized directly on the bytes by a {@link JSONUTF8Tokenizer}, other encodings are detected
+   * and decoded by {@link JSONEncoding}. An input without any tokens results in {@code null}.
+   * 
+   * @since 1.1
+   * @param input The binary JSON text
+   * @return The parsed object
+   * @throws ParserException If parsing malformed data or if the input is not properly encoded
+   */
+  public JSONValue parse(byte[] input) throws ParserException {
+    if (input == null) {
+      return null;
+    }
+
+    return parse(ByteBuffer.wrap(input));
+  }
+
+  /**
+   * Parse the given binary JSON text into a {@link JSONValue} instance, using the specified number of
+   * threads if its root is an array. The separators of the root array are found by a scan tracking only
+   * brackets and strings, then the elements are divided into ranges. The ranges are parsed by a
+   * {@link ForkJoinPool} with the specified number of threads, which is created for the call and shut
+   * down afterwards, each into its own slice of the resulting array. Other roots and other encodings than UTF-8 are parsed like by
+   * {@link #parse(byte[])}. If the input is malformed, it is parsed again by {@link #parse(byte[])}
+   * to report the same error.
+   * 
+   * @since 1.1
+   * @param input The binary JSON text
+   * @param parallelism The number of threads parsing the elements, at least {@code 1}
+   * @return The parsed object
+   * @throws ParserException If parsing malformed data or if the input is not properly encoded
+   */
+  public JSONValue parseParallel(byte[] input, int parallelism) throws ParserException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException();
+    }
+
+    if ((input == null) || (parallelism == 1) || !isUTF8(ByteBuffer.wrap(input))) {
+      return parse(input);
+    }
+
+    JSONValue value = ParallelArrayParser.parse(this, input, parallelism);
+    if (value == null) {
+      return parse(input);
+    }
+
+    return value;
+  }
+
+  /**
+   * Parse the given input into a {@link JSONValue} instance, using the specified number of threads
+   * if its root is an array, see {@link #parseParallel(byte[], int)}. The characters are tokenized
+   * directly, without encoding them, so unpaired surrogates are kept like by {@link #parse(String)}.
+   * If the input is malformed, it is parsed again by {@link #parse(String)} to report the same error.
+   * 
+   * @since 1.1
+   * @param input The input string that will be parsed
+   * @param parallelism The number of threads parsing the elements, at least {@code 1}
+   * @return The parsed object or {@code null} if the input contains no tokens
+   * @throws ParserException If parsing malformed data
+   */
+  public JSONValue parseParallel(String input, int parallelism) throws ParserException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException();
+    }
+
+    if ((input == null) || (parallelism == 1)) {
+      return parse(input);
+    }
+
+    JSONValue value = ParallelArrayParser.parse(this, input, parallelism);
+    if (value == null) {
+      return parse(input);
+    }
+
+    return value;
+  }
+
+  /**
+   * Parse the remaining bytes of the given buffer into a {@link JSONValue} instance. UTF-8 encoded
+   * input is tokenized directly on the bytes by a {@link JSONUTF8Tokenizer}, other encodings are
+   * detected and decoded by {@link JSONEncoding}. The position of the buffer is not changed.
+   * An input without any tokens results in {@code null}.
+   * 
+   * @since 1.1
+   * @param input The buffer containing the binary JSON text
+   * @return The parsed object
+   * @throws ParserException If parsing malformed data or if the input is not properly encoded
+   */
+  public JSONValue parse(ByteBuffer input) throws ParserException {
+    if (input == null) {
+      return null;
+    }
+
+    if (isUTF8(input)) {
+      return parse(new JSONUTF8Tokenizer(input));
+    }
+
+    try {
+      return parse(JSONEncoding.newReader(input));
+    } catch (IOException e) {
+      throw new ParserException(e);
+    }
+  }
+
+  /**
+   * Parse the binary JSON text in the specified file into a {@link JSONValue} instance. UTF-8 encoded
+   * files are memory mapped and tokenized directly on the mapped bytes by a {@link JSONUTF8Tokenizer},
+   * without copying them to the heap first. Other encodings are detected and decoded by {@link JSONEncoding}.
+   * An input without any tokens results in {@code null}.
+   * 
+   * @since 1.1
+   * @param input The path of the file
+   * @return The parsed object
+   * @throws IOException If reading the file fails or if the file is not properly encoded
+   * @throws ParserException If parsing malformed data
+   */
+  public JSONValue parse(Path input) throws IOException, ParserException {
+    if (input == null) {
+      return null;
+    }
+
+    try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+      if (isUTF8(readHead(channel))) {
+        try {
+          return parse(new JSONUTF8Tokenizer(channel));
+        } catch (UncheckedIOException e) {
+          throw e.getCause();
+        }
+      }
+
+      InputStream stream = Channels.newInputStream(channel);
+      return parse(JSONEncoding.newReader(stream));
+    }
+  }
+
+  private static ByteBuffer readHead(FileChannel channel) throws IOException {
+    ByteBuffer head = ByteBuffer.allocate(4);
+
+    while (head.hasRemaining()) {
+      if (channel.read(head, head.position()) < 0) {
+        break;
+      }
+    }
+
+    head.flip();
+    return head;
+  }
+
+  static boolean isUTF8(ByteBuffer input) {
+    byte[] head = new byte[4];
+    int length = Math.min(head.length, input.remaining());
+
+    for (int i = 0; i < length; i++) {
+      head[i] = input.get(input.position() + i);
+    }
+
+    JSONEncoding encoding = JSONEncoding.detect(head, length);
+    return StandardCharsets.UTF_8.equals(encoding.getCharset());
+  }
+
+  private static boolean isBlank(String input) {
+    for (int i = 0, j = input.length(); i < j; i++) {
+      switch (input.charAt(i)) {
+        case ' ':
+        case '\t':
+        case '\n':
+        case '\r':
+        case '\f':
+        case '\u000B':
+          break;
+        default:
+          return false;
+      }
+    }
+
+    return true;
+  }
+
   /**
    * Returns a {@link JSONTokenizer} instance which is used by the parsing process.
    * 
@@ -64,6 +431,18 @@ public class JSONLLParser extends LLParser<JSONValue> {
   protected JSONTokenizer getTokenizer(String input) {
     return new JSONTokenizer(input);
   }
+
+  /**
+   * Returns a {@link JSONTokenizer} instance which reads the input incrementally from the specified reader.
+   * 
+   * @since 1.1
+   * @param input The reader providing the input that will be parsed
+   * @return The tokenizer instance
+   */
+  @Override
+  protected JSONTokenizer getTokenizer(Reader input) {
+    return new JSONTokenizer(input);
+  }
   
   /**
    * Evaluates if a specified token is relevant for the parsing process.
@@ -83,177 +462,540 @@ public class JSONLLParser extends LLParser<JSONValue> {
   }
 
   /**
-   * The start of the parsing process.
+   * Parses the tokens provided by the specified tokenizer and reports them to the specified handler.
+   */
+  private void parse(Iterator<? extends Token> tokenizer, JSONHandler handler) throws ParserException {
+    JSONTokenStream tokens = TokenIteratorStream.of(tokenizer);
+    parse(tokens, nextKind(tokens), handler);
+  }
+
+  /**
+   * Parses the tokens of the specified token stream starting with the specified current token and
+   * reports them to the specified handler, or builds a {@link JSONValue} if no handler is specified.
+   */
+  private JSONValue parse(JSONTokenStream tokens, int current, JSONHandler handler) throws ParserException {
+    int kind = current;
+    if (kind == JSONTokenStream.END_OF_INPUT) {
+      return null;
+    }
+
+    JSONTreeBuilder builder = null;
+    JSONHandler target = handler;
+    if (target == null) {
+      builder = new JSONTreeBuilder();
+      target = builder;
+    }
+
+    processValue(tokens, kind, target, maxDepth);
+    kind = nextKind(tokens);
+    if (kind != JSONTokenStream.END_OF_INPUT) {
+      String message = String.format("Unexpected token found after value: %s", getTokenName(kind));
+      throw new ParserException(message);
+    }
+
+    return (builder != null) ? builder.getValue() : null;
+  }
+
+  /**
+   * Parses the specified number of comma separated values of the specified token stream into the
+   * specified array, starting at the specified offset. Used for ranges of the elements of an array,
+   * the values are nested in the specified number of arrays, which is considered for the maximum
+   * nesting depth.
+   */
+  void parseValues(JSONTokenStream tokens, int depth, JSONValue[] values, int offset, int count) throws ParserException {
+    int kind = nextKind(tokens);
+
+    for (int i = offset, end = offset + count; i < end; i++) {
+      if (i > offset) {
+        if (kind != JSONTokenStream.VALUE_SEPARATOR) {
+          String message = String.format("Expected token: JSONValueSeparatorToken. Found: %s", getTokenName(kind));
+          throw new ParserException(message);
+        }
+        kind = nextKind(tokens);
+      }
+
+      JSONTreeBuilder builder = new JSONTreeBuilder();
+      processValue(tokens, kind, builder, maxDepth - depth);
+      values[i] = builder.getValue();
+      kind = nextKind(tokens);
+    }
+
+    if (kind != JSONTokenStream.END_OF_INPUT) {
+      String message = String.format("Unexpected token found after value: %s", getTokenName(kind));
+      throw new ParserException(message);
+    }
+  }
+
+  /**
+   * Parses one value starting with the specified current token into a {@link JSONValue}. The token
+   * stream is not advanced beyond the last token of the value, used for streams of several values.
+   */
+  JSONValue parseValue(JSONTokenStream tokens, int current) throws ParserException {
+    JSONTreeBuilder builder = new JSONTreeBuilder();
+    processValue(tokens, current, builder, maxDepth);
+    return builder.getValue();
+  }
+
+  /**
+   * Indicates if the tokens following the lookahead are read from the tokenizer directly, if it is a
+   * {@link JSONTokenStream}. No further {@link Token} instances are created then, but
+   * {@link #isRelevantToken(Token)}, {@link #nextToken()} and {@link #getLookahead(int)} are not called
+   * for these tokens anymore.
+   * <p>
+   * Only enabled for instances of this class itself, so subclasses overriding any of these methods
+   * keep working. Subclasses which do not override them may return {@code true}.
    * 
-   * @return The parsed object
+   * @since 1.1
+   * @return {@code true} if the tokens are read from the tokenizer directly, {@code false} if they
+   *         are read through the lookahead
+   */
+  protected boolean isReadingTokenStream() {
+    return getClass() == JSONLLParser.class;
+  }
+
+  /**
+   * Parses the tokens of the current parsing process by their kinds as provided by a
+   * {@link JSONTokenStream}. If the tokenizer is a {@link JSONTokenStream} and
+   * {@link #isReadingTokenStream()} is enabled, the tokens following the lookahead are read from the
+   * stream directly. Otherwise the tokens are read through {@link #nextToken()} and
+   * {@link #getLookahead(int)}, so the relevance of each token is evaluated by
+   * {@link #isRelevantToken(Token)}.
+   * 
+   * @return The parsed object or {@code null} if the input contains no tokens
    * @throws ParserException If processing malformed data
    */
   @Override
   protected JSONValue processStartSymbol() throws ParserException {
-    return processValue();
+    Token first = getLookahead(0);
+    if (first == null) {
+      return null;
+    }
+
+    if (isReadingTokenStream()) {
+      Iterator<? extends Token> tokenizer = getTokenState().getTokenizer();
+      if (tokenizer instanceof JSONTokenStream) {
+        // the stream is positioned at the token of the lookahead
+        return parse((JSONTokenStream)tokenizer, TokenIteratorStream.getKind(first), null);
+      }
+    }
+
+    LookaheadTokenStream tokens = new LookaheadTokenStream();
+    try {
+      return parse(tokens, tokens.accept(first), null);
+    } catch (ParserException e) {
+      throw (tokens.failure != null) ? tokens.failure : e;
+    }
   }
 
-  private JSONValue processObject() throws ParserException {
-    JSONObject object = new JSONObject();
-    
-    nextToken();
-    processRestOfObject(object);
-    
-    return object;
+  /**
+   * Parses one value starting with the specified current token. Values are parsed iteratively with
+   * an explicit stack of the currently open objects and arrays, so neither nesting nor the number of
+   * elements or members consume stack frames. The nesting depth is limited by the specified depth.
+   * The token stream is left at the last token of the value.
+   */
+  private void processValue(JSONTokenStream tokens, int current, JSONHandler handler, int depthLimit) throws ParserException {
+    ParseContext context = ParseContext.acquire(depthLimit);
+    try {
+      processValue(tokens, current, handler, context.stack, context.slice);
+    } finally {
+      context.release();
+    }
   }
 
-  private void processRestOfObject(JSONObject object) throws ParserException {
-    Token lookaheadZero = lookahead[0];
-    
-    if (lookaheadZero instanceof JSONEndObjectToken) {
-      nextToken();
-    } else if (lookaheadZero instanceof JSONStringToken) {
-      processMember(object);
-      processMembers(object);
-      nextToken();
-    } else {
-      String message = String.format("Unexpected token found: %s", lookaheadZero.getClass().getSimpleName());
-      throw new ParserException(message);
+  private void processValue(JSONTokenStream tokens, int current, JSONHandler handler, ContainerStack stack, StringSlice slice) throws ParserException {
+    int kind = current;
+
+    while (true) {
+      switch (kind) {
+        case JSONTokenStream.BEGIN_OBJECT:
+          stack.checkDepth(tokens.getTokenStart());
+          handler.startObject();
+          kind = nextKind(tokens);
+          if (kind == JSONTokenStream.END_OBJECT) {
+            handler.endObject();
+            break;
+          }
+          stack.push(true);
+          kind = processMemberName(tokens, kind, slice, handler);
+          // continue with the value of the first member
+          continue;
+        case JSONTokenStream.BEGIN_ARRAY:
+          stack.checkDepth(tokens.getTokenStart());
+          handler.startArray();
+          kind = nextKind(tokens);
+          if (kind == JSONTokenStream.END_ARRAY) {
+            handler.endArray();
+            break;
+          }
+          stack.push(false);
+          // continue with the first element
+          continue;
+        case JSONTokenStream.STRING:
+          handler.stringValue(slice.unescape(tokens, cachingStringValues ? stringCache : null));
+          break;
+        case JSONTokenStream.NUMBER:
+          handler.numberValue(slice.of(tokens));
+          break;
+        case JSONTokenStream.TRUE:
+          handler.booleanValue(true);
+          break;
+        case JSONTokenStream.FALSE:
+          handler.booleanValue(false);
+          break;
+        case JSONTokenStream.NULL:
+          handler.nullValue();
+          break;
+        default:
+          String message = String.format("Unexpected token found: %s", getTokenName(kind));
+          throw new ParserException(message);
+      }
+
+      // the value is complete, close all containers ending here
+      while (true) {
+        if (stack.isEmpty()) {
+          return;
+        }
+
+        kind = nextKind(tokens);
+        if (stack.isObject()) {
+          if (kind == JSONTokenStream.VALUE_SEPARATOR) {
+            kind = processMemberName(tokens, nextKind(tokens), slice, handler);
+            break;
+          } else if (kind == JSONTokenStream.END_OBJECT) {
+            stack.pop();
+            handler.endObject();
+          } else {
+            String message = String.format("Expected token: JSONEndObjectToken. Found: %s", getTokenName(kind));
+            throw new ParserException(message);
+          }
+        } else {
+          if (kind == JSONTokenStream.VALUE_SEPARATOR) {
+            kind = nextKind(tokens);
+            break;
+          } else if (kind == JSONTokenStream.END_ARRAY) {
+            stack.pop();
+            handler.endArray();
+          } else {
+            String message = String.format("Expected token: JSONEndArrayToken. Found: %s", getTokenName(kind));
+            throw new ParserException(message);
+          }
+        }
+      }
     }
   }
-  
-  private void processMembers(JSONObject object) throws ParserException {
-    Token lookaheadZero = lookahead[0];
-    
-    if (lookaheadZero instanceof JSONValueSeparatorToken) {
-      nextToken();
-      processMember(object);
-      processMembers(object);
-    } else if (!(lookaheadZero instanceof JSONEndObjectToken)) {
-      String message = String.format("Expected token: JSONEndObjectToken. Found: %s", lookaheadZero.getClass().getSimpleName());
+
+  private int processMemberName(JSONTokenStream tokens, int current, StringSlice slice, JSONHandler handler) throws ParserException {
+    if (current != JSONTokenStream.STRING) {
+      String message = String.format("Expected token: JSONStringToken. Found: %s", getTokenName(current));
       throw new ParserException(message);
     }
-  }
+    handler.key(slice.unescape(tokens, cachingKeys ? stringCache : null));
 
-  private void processMember(JSONObject object) throws ParserException {
-    Token lookaheadZero = lookahead[0];
-    if (!(lookaheadZero instanceof JSONStringToken)) {
-      String message = String.format("Expected token: JSONStringToken. Found: %s", lookaheadZero.getClass().getSimpleName());
+    int kind = nextKind(tokens);
+    if (kind != JSONTokenStream.NAME_SEPARATOR) {
+      String message = String.format("Expected token: JSONNameSeparatorToken. Found: %s", getTokenName(kind));
       throw new ParserException(message);
     }
-    String key = unescapeString(((JSONStringToken)lookahead[0]).getValue());
-    
-    nextToken();
-    lookaheadZero = lookahead[0];
-    if (!(lookaheadZero instanceof JSONNameSeparatorToken)) {
-      String message = String.format("Expected token: JSONNameSeparatorToken. Found: %s", lookaheadZero.getClass().getSimpleName());
+
+    return nextKind(tokens);
+  }
+
+  /**
+   * Advances the token stream and fails for illegal characters.
+   */
+  static int nextKind(JSONTokenStream tokens) throws ParserException {
+    int kind = tokens.nextToken();
+    if (kind == JSONTokenStream.ERROR) {
+      String message = String.format("Illegal character at position: %d", tokens.getTokenStart());
       throw new ParserException(message);
     }
-    
-    nextToken();
-    JSONValue value = processValue();
-    
-    object.put(key, value);
+
+    return kind;
   }
 
-  private JSONArray processArray() throws ParserException {
-    JSONArray array = new JSONArray();
-    
-    nextToken();
-    processRestOfArray(array);
-    
-    return array;
+  /**
+   * Returns the name of the token class of the specified kind for use in error messages.
+   */
+  static String getTokenName(int kind) {
+    return TOKEN_NAMES[kind];
   }
-  
-  private void processRestOfArray(JSONArray array) throws ParserException {
-    Token lookaheadZero = lookahead[0];
-    
-    if (lookaheadZero instanceof JSONEndArrayToken) {
-      nextToken();
-    } else if ((lookaheadZero instanceof JSONBeginObjectToken)
-            || (lookaheadZero instanceof JSONBeginArrayToken)
-            || (lookaheadZero instanceof JSONTrueToken)
-            || (lookaheadZero instanceof JSONFalseToken)
-            || (lookaheadZero instanceof JSONNullToken)
-            || (lookaheadZero instanceof JSONStringToken)
-            || (lookaheadZero instanceof JSONNumberToken)) {
-      JSONValue value = processValue();
-      array.add(value);
-      processValues(array);
-      nextToken();
-    } else {
-      String message = String.format("Unexpected token found: %s", lookaheadZero.getClass().getSimpleName());
-      throw new ParserException(message);
+
+  /**
+   * Unescapes the content of a string token including its quotation marks. If the content contains
+   * no escape sequences, it is copied without any further processing.
+   */
+  static String unescapeString(char[] chars, int offset, int length) {
+    return unescapeString(chars, offset, length, null);
+  }
+
+  /**
+   * Unescapes the content of a string token including its quotation marks. If the content contains
+   * no escape sequences, the canonical string of the specified cache is returned if present.
+   */
+  static String unescapeString(char[] chars, int offset, int length, StringCache cache) {
+    int end = offset + length - 1;
+    int index = indexOfEscape(chars, offset + 1, end);
+    if (index < 0) {
+      if (cache != null) {
+        return cache.get(chars, offset + 1, length - 2);
+      }
+
+      return new String(chars, offset + 1, length - 2);
     }
+
+    StringBuilder builder = new StringBuilder(length);
+    unescapeString(chars, offset, length, index, builder);
+    return builder.toString();
   }
-  
-  private void processValues(JSONArray array) throws ParserException {
-    Token lookaheadZero = lookahead[0];
-
-    if (lookaheadZero instanceof JSONValueSeparatorToken) {
-      nextToken();
-      JSONValue value = processValue();
-      array.add(value);
-      processValues(array);
-    } else if (!(lookaheadZero instanceof JSONEndArrayToken)) {
-      String message = String.format("Expected token: JSONEndArrayToken. Found: %s", lookaheadZero.getClass().getSimpleName());
-      throw new ParserException(message);
+
+  private static int indexOfEscape(char[] chars, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (chars[i] == '\\') {
+        return i;
+      }
     }
+
+    return -1;
   }
 
-  private JSONValue processValue() throws ParserException {
-    Token lookaheadZero = lookahead[0];
-
-    if (lookaheadZero instanceof JSONBeginObjectToken) {
-      return processObject();
-    } else if (lookaheadZero instanceof JSONBeginArrayToken) {
-      return processArray();
-    } else if (lookaheadZero instanceof JSONTrueToken) {
-      nextToken();
-      return new JSONTrue();
-    } else if (lookaheadZero instanceof JSONFalseToken) {
-      nextToken();
-      return new JSONFalse();
-    } else if (lookaheadZero instanceof JSONNullToken) {
-      nextToken();
-      return new JSONNull();
-    } else if (lookaheadZero instanceof JSONStringToken) {
-      String value = unescapeString(((JSONStringToken)lookaheadZero).getValue());
-      nextToken();
-      return new JSONString(value);
-    } else if (lookaheadZero instanceof JSONNumberToken) {
-      String value = ((JSONNumberToken)lookaheadZero).getValue();
-      nextToken();
-      return new JSONNumber(value);
-    } else {
-      String message = String.format("Unexpected token found: %s", lookaheadZero.getClass().getSimpleName());
-      throw new ParserException(message);
+  /**
+   * Appends the unescaped content of a string token including its quotation marks to the specified
+   * builder in a single pass. The runs between escape sequences are appended in bulk. Escaped surrogate
+   * pairs result in the two UTF-16 code units, unpaired surrogates are kept as they are.
+   */
+  static void unescapeString(char[] chars, int offset, int length, int firstEscape, StringBuilder target) {
+    int end = offset + length - 1;
+    int runStart = offset + 1;
+    int index = firstEscape;
+
+    while (index >= 0) {
+      target.append(chars, runStart, index - runStart);
+
+      char character = chars[index + 1];
+      switch (character) {
+        case 'b':
+          target.append('\b');
+          break;
+        case 'f':
+          target.append('\f');
+          break;
+        case 'n':
+          target.append('\n');
+          break;
+        case 'r':
+          target.append('\r');
+          break;
+        case 't':
+          target.append('\t');
+          break;
+        case 'u':
+          target.append(parseHexCodeUnit(chars, index + 2));
+          index += 4;
+          break;
+        default:
+          target.append(character);
+          break;
+      }
+
+      runStart = index + 2;
+      index = indexOfEscape(chars, runStart, end);
     }
+
+    target.append(chars, runStart, end - runStart);
   }
-  
-  private String unescapeString(String value) {
-    String unquoted = unquoteString(value);
-    String replaced = unquoted.replace("\\\"", "\"");
-    replaced = replaced.replace("\\\\", "\\");
-    replaced = replaced.replace("\\/", "/");
-    replaced = replaced.replace("\\b", "\b");
-    replaced = replaced.replace("\\f", "\f");
-    replaced = replaced.replace("\\n", "\n");
-    replaced = replaced.replace("\\r", "\r");
-    replaced = replaced.replace("\\t", "\t");
-    
-    Matcher matcher = UNICODE_PATTERN.matcher(replaced);
-    StringBuffer stringBuffer = new StringBuffer(replaced.length());
-    
-    while (matcher.find()) {
-      String codepointString = matcher.group(1);
-      Integer codePoint = Integer.parseInt(codepointString, 16);
-      char[] chars = Character.toChars(codePoint);
-      matcher.appendReplacement(stringBuffer,  new String(chars));
+
+  private static char parseHexCodeUnit(char[] chars, int start) {
+    int codeUnit = 0;
+
+    for (int i = start, j = start + 4; i < j; i++) {
+      codeUnit = (codeUnit << 4) | Character.digit(chars[i], 16);
     }
-    
-    matcher.appendTail(stringBuffer);
-    
-    return stringBuffer.toString();
+
+    return (char)codeUnit;
   }
-  
-  private String unquoteString(String value) {
-    int length = value.length() - 1;
-    return value.substring(1, length);
+
+  /**
+   * Reusable state of one parsing process. Each thread keeps one context, a nested parsing process
+   * started by a {@link JSONHandler} on the same thread uses a new one.
+   */
+  private static class ParseContext {
+    private static final ThreadLocal<ParseContext> CONTEXTS = ThreadLocal.withInitial(ParseContext::new);
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+
+    private final ContainerStack stack = new ContainerStack();
+    private final StringSlice slice = new StringSlice();
+    private boolean inUse;
+
+    private static ParseContext acquire(int maxDepth) {
+      ParseContext context = CONTEXTS.get();
+      if (context.inUse) {
+        context = new ParseContext();
+      }
+
+      context.inUse = true;
+      context.stack.reset(maxDepth);
+      return context;
+    }
+
+    private void release() {
+      inUse = false;
+      slice.release(MAX_RETAINED_CAPACITY);
+    }
+  }
+
+  private static class ContainerStack {
+    private int maxDepth;
+    private boolean[] objects = new boolean[16];
+    private int depth;
+
+    private void reset(int value) {
+      maxDepth = value;
+      depth = 0;
+    }
+
+    private boolean isEmpty() {
+      return (depth == 0);
+    }
+
+    private boolean isObject() {
+      return objects[depth - 1];
+    }
+
+    private void checkDepth(long position) throws ParserException {
+      if (depth == maxDepth) {
+        String message = String.format("Maximum nesting depth of %d exceeded at position: %d", maxDepth, position);
+        throw new ParserException(message);
+      }
+    }
+
+    private void push(boolean object) {
+      if (depth == objects.length) {
+        objects = Arrays.copyOf(objects, depth << 1);
+      }
+
+      objects[depth++] = object;
+    }
+
+    private void pop() {
+      depth--;
+    }
+  }
+
+  /**
+   * Reusable view of the characters of the current token, passed to the {@link JSONHandler}
+   * without copying them. Strings containing escape sequences are unescaped into a reused builder.
+   * If a {@link StringCache} is used, {@link #toString()} returns the canonical string.
+   */
+  private static class StringSlice implements CharSequence {
+    private StringBuilder builder = new StringBuilder();
+    private char[] unescaped = new char[StringCache.MAX_LENGTH];
+    private StringCache cache;
+    private char[] chars;
+    private int start;
+    private int end;
+
+    private CharSequence of(JSONTokenStream tokens) {
+      int offset = tokens.getValueOffset();
+      return view(tokens.getValueChars(), offset, offset + tokens.getValueLength(), null);
+    }
+
+    private CharSequence unescape(JSONTokenStream tokens, StringCache cache) {
+      char[] value = tokens.getValueChars();
+      int offset = tokens.getValueOffset();
+      int length = tokens.getValueLength();
+
+      int index = indexOfEscape(value, offset + 1, offset + length - 1);
+      if (index >= 0) {
+        builder.setLength(0);
+        unescapeString(value, offset, length, index, builder);
+        if ((cache == null) || (builder.length() > StringCache.MAX_LENGTH)) {
+          return builder;
+        }
+
+        builder.getChars(0, builder.length(), unescaped, 0);
+        return view(unescaped, 0, builder.length(), cache);
+      }
+
+      return view(value, offset + 1, offset + length - 1, cache);
+    }
+
+    /**
+     * Drops the references to the input and a builder grown beyond the specified capacity.
+     */
+    private void release(int maxCapacity) {
+      view(null, 0, 0, null);
+      if (builder.capacity() > maxCapacity) {
+        builder = new StringBuilder();
+      }
+    }
+
+    private CharSequence view(char[] chars, int start, int end, StringCache cache) {
+      this.cache = cache;
+      this.chars = chars;
+      this.start = start;
+      this.end = end;
+      return this;
+    }
+
+    @Override
+    public int length() {
+      return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if ((index < 0) || (index >= length())) {
+        throw new IndexOutOfBoundsException();
+      }
+
+      return chars[start + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int startIndex, int endIndex) {
+      if ((startIndex < 0) || (endIndex > length()) || (startIndex > endIndex)) {
+        throw new IndexOutOfBoundsException();
+      }
+
+      return new String(chars, start + startIndex, endIndex - startIndex);
+    }
+
+    @Override
+    public String toString() {
+      if (cache != null) {
+        return cache.get(chars, start, end - start);
+      }
+
+      return new String(chars, start, end - start);
+    }
+  }
+
+  /**
+   * Token stream reading the tokens through {@link JSONLLParser#nextToken()} and
+   * {@link JSONLLParser#getLookahead(int)}, so overriding implementations are called. A
+   * {@link ParserException} thrown while pulling a token is kept and reported as
+   * {@link JSONTokenStream#ERROR}.
+   */
+  private class LookaheadTokenStream extends TokenIteratorStream {
+    private ParserException failure;
+
+    private LookaheadTokenStream() {
+      super(null);
+    }
+
+    @Override
+    public int nextToken() {
+      if (failure == null) {
+        try {
+          JSONLLParser.this.nextToken();
+          Token token = getLookahead(0);
+          return (token != null) ? accept(token) : END_OF_INPUT;
+        } catch (ParserException e) {
+          failure = e;
+        }
+      }
+
+      return ERROR;
+    }
   }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import de.dcoding.parsers.ParserException;
+
+/**
+ * Callback interface receiving the lines of a {@link JSONLinesReader} which do not contain a valid
+ * JSON text. The reader continues with the next line after the callback returns.
+ * 
+ * @since  1.1
+ */
+public interface JSONLinesErrorHandler {
+  /**
+   * Called for a line which could not be parsed, in the order of the lines.
+   * 
+   * @param lineNumber The number of the line, starting with {@code 1}
+   * @param exception The exception describing the error
+   */
+  void error(int lineNumber, ParserException exception);
+}
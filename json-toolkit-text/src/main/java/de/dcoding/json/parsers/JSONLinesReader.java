@@ -0,0 +1,397 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import de.dcoding.json.JSONValue;
+import de.dcoding.parsers.ParserException;
+
+/**
+ * Reader for newline delimited JSON texts (JSON Lines), which contain one JSON text per line. The
+ * values are provided one by one as an {@link Iterator} or as a {@link Stream}, so the input is read
+ * incrementally. Blank lines are skipped.
+ * <p>
+ * Lines which do not contain a valid JSON text are reported to the {@link JSONLinesErrorHandler}
+ * with their line numbers and skipped, so a single malformed line does not abort the input.
+ * <p>
+ * With a parallelism of more than one thread, the lines are read in batches which are decoded on a
+ * pool of worker threads, each using its own {@link JSONLLParser}. The values and errors are still
+ * reported in the order of the lines. The worker threads are stopped at the end of the input or
+ * when the reader is closed. If neither happens, idle worker threads end after a few seconds.
+ * Readers should nevertheless be closed, for example by a try-with-resources statement, to close
+ * the underlying reader.
+ * <p>
+ * As {@link Iterator} methods cannot throw checked exceptions, failures of the underlying reader
+ * are thrown as {@link UncheckedIOException}s.
+ * 
+ * @since  1.1
+ */
+public class JSONLinesReader implements Iterator<JSONValue>, Closeable {
+  private static final int BATCH_SIZE = 256;
+  private static final int BATCHES_PER_THREAD = 2;
+  private static final long KEEP_ALIVE_SECONDS = 10;
+
+  private final BufferedReader input;
+  private final int parallelism;
+  private final JSONLLParser parser;
+  private final ArrayDeque<Future<Batch>> pending = new ArrayDeque<>();
+  private ThreadPoolExecutor executor;
+  private ThreadLocal<JSONLLParser> parsers;
+  private JSONLinesErrorHandler errorHandler;
+  private int lineNumber;
+  private boolean endOfInput;
+  private Batch batch;
+  private int batchIndex;
+  private JSONValue nextValue;
+  private int nextLineNumber;
+  private int valueLineNumber;
+
+  /**
+   * Constructs a new reader for the lines read from the specified {@link Reader}, decoding
+   * them on the calling thread.
+   * 
+   * @param input The reader providing the lines
+   */
+  public JSONLinesReader(Reader input) {
+    this(input, 1);
+  }
+
+  /**
+   * Constructs a new reader for the lines read from the specified {@link Reader}, decoding
+   * them with the specified number of threads.
+   * 
+   * @param input The reader providing the lines
+   * @param parallelism The number of threads decoding the lines, at least {@code 1}. With one
+   *        thread, the lines are decoded on the calling thread.
+   */
+  public JSONLinesReader(Reader input, int parallelism) {
+    if ((input == null) || (parallelism < 1)) {
+      throw new IllegalArgumentException();
+    }
+
+    this.input = (input instanceof BufferedReader) ? (BufferedReader)input : new BufferedReader(input);
+    this.parallelism = parallelism;
+    this.parser = (parallelism == 1) ? new JSONLLParser() : null;
+  }
+
+  /**
+   * Constructs a new reader for the lines of the specified UTF-8 encoded file, decoding
+   * them with the specified number of threads.
+   * 
+   * @param input The path of the file
+   * @param parallelism The number of threads decoding the lines, at least {@code 1}
+   * @throws IOException If the file cannot be opened
+   */
+  public JSONLinesReader(Path input, int parallelism) throws IOException {
+    this(Files.newBufferedReader(checkPath(input), StandardCharsets.UTF_8), parallelism);
+  }
+
+  private static Path checkPath(Path input) {
+    if (input == null) {
+      throw new IllegalArgumentException();
+    }
+    return input;
+  }
+
+  /**
+   * Returns the handler receiving the lines which do not contain a valid JSON text.
+   * 
+   * @return The error handler or {@code null} if malformed lines are skipped silently
+   */
+  public JSONLinesErrorHandler getErrorHandler() {
+    return errorHandler;
+  }
+
+  /**
+   * Configures the handler receiving the lines which do not contain a valid JSON text.
+   * 
+   * @param value The error handler or {@code null} to skip malformed lines silently
+   */
+  public void setErrorHandler(JSONLinesErrorHandler value) {
+    errorHandler = value;
+  }
+
+  /**
+   * Returns the number of the line containing the value returned by the last call of {@link #next()}.
+   * 
+   * @return The line number, starting with {@code 1}, or {@code 0} if {@link #next()} was not called yet
+   */
+  public int getLineNumber() {
+    return valueLineNumber;
+  }
+
+  /**
+   * Returns if there is at least one more value. Malformed lines preceding the next value are
+   * reported to the error handler by this method.
+   * 
+   * @return If there is at least one more value
+   * @throws UncheckedIOException If reading from the underlying reader fails
+   */
+  @Override
+  public boolean hasNext() {
+    if (parallelism == 1) {
+      try {
+        return decodeNextLine();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    while (nextValue == null) {
+      if ((batch == null) || (batchIndex == batch.size)) {
+        try {
+          batch = nextBatch();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        batchIndex = 0;
+        if (batch == null) {
+          return false;
+        }
+      }
+
+      int index = batchIndex++;
+      Object result = batch.results[index];
+      batch.results[index] = null;
+      if (result instanceof ParserException) {
+        if (errorHandler != null) {
+          errorHandler.error(batch.lineNumbers[index], (ParserException)result);
+        }
+      } else {
+        nextValue = (JSONValue)result;
+        nextLineNumber = batch.lineNumbers[index];
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the value of the next line containing a valid JSON text.
+   * 
+   * @return The next value
+   * @throws UncheckedIOException If reading from the underlying reader fails
+   * @throws NoSuchElementException If there are no more values
+   */
+  @Override
+  public JSONValue next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    JSONValue value = nextValue;
+    nextValue = null;
+    valueLineNumber = nextLineNumber;
+    return value;
+  }
+
+  /**
+   * Returns a sequential, ordered {@link Stream} of the remaining values. Closing the stream
+   * closes this reader.
+   * 
+   * @return The stream of the values
+   */
+  public Stream<JSONValue> stream() {
+    Spliterator<JSONValue> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(() -> {
+      try {
+        close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  /**
+   * Closes the underlying reader and stops the worker threads.
+   * 
+   * @throws IOException If closing the underlying reader fails
+   */
+  @Override
+  public void close() throws IOException {
+    endOfInput = true;
+    pending.clear();
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    input.close();
+  }
+
+  /**
+   * Decodes the lines on the calling thread until the next value is found.
+   * 
+   * @return If there is another value
+   */
+  private boolean decodeNextLine() throws IOException {
+    while ((nextValue == null) && !endOfInput) {
+      String line = input.readLine();
+      if (line == null) {
+        endOfInput = true;
+        break;
+      }
+
+      lineNumber++;
+      if (isBlank(line)) {
+        continue;
+      }
+
+      try {
+        nextValue = parser.parse(line);
+        nextLineNumber = lineNumber;
+      } catch (ParserException e) {
+        if (errorHandler != null) {
+          errorHandler.error(lineNumber, e);
+        }
+      }
+    }
+    return nextValue != null;
+  }
+
+  private Batch nextBatch() throws IOException {
+    if (executor == null) {
+      executor = new ThreadPoolExecutor(parallelism, parallelism, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "JSONLinesReader");
+            thread.setDaemon(true);
+            return thread;
+          });
+      // threads of readers dropped without closing them end when idle
+      executor.allowCoreThreadTimeOut(true);
+      parsers = ThreadLocal.withInitial(JSONLLParser::new);
+    }
+
+    while (pending.size() < parallelism * BATCHES_PER_THREAD) {
+      Batch next = readBatch(BATCH_SIZE);
+      if (next == null) {
+        break;
+      }
+      pending.add(executor.submit(next));
+    }
+
+    Future<Batch> future = pending.poll();
+    if (future == null) {
+      executor.shutdown();
+      return null;
+    }
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) {
+        throw (Error)cause;
+      }
+      throw (RuntimeException)cause;
+    }
+  }
+
+  /**
+   * Reads the next non-blank lines of the input.
+   * 
+   * @return The batch of lines or {@code null} at the end of the input
+   */
+  private Batch readBatch(int size) throws IOException {
+    Batch next = null;
+    while (!endOfInput) {
+      String line = input.readLine();
+      if (line == null) {
+        endOfInput = true;
+        break;
+      }
+
+      lineNumber++;
+      if (isBlank(line)) {
+        continue;
+      }
+
+      if (next == null) {
+        next = new Batch(size);
+      }
+      next.add(lineNumber, line);
+      if (next.size == size) {
+        break;
+      }
+    }
+    return next;
+  }
+
+  private static boolean isBlank(String line) {
+    for (int i = 0; i < line.length(); i++) {
+      char ch = line.charAt(i);
+      if ((ch != ' ') && (ch != '\t') && (ch != '\r')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Lines which are decoded together. The lines are replaced by the parsed values or the exceptions.
+   */
+  private final class Batch implements Callable<Batch> {
+    private final int[] lineNumbers;
+    private final Object[] results;
+    private int size;
+
+    private Batch(int capacity) {
+      lineNumbers = new int[capacity];
+      results = new Object[capacity];
+    }
+
+    private void add(int number, String line) {
+      lineNumbers[size] = number;
+      results[size++] = line;
+    }
+
+    @Override
+    public Batch call() {
+      JSONLLParser lineParser = parsers.get();
+      for (int i = 0; i < size; i++) {
+        try {
+          results[i] = lineParser.parse((String)results[i]);
+        } catch (ParserException e) {
+          results[i] = e;
+        }
+      }
+      return this;
+    }
+  }
+}
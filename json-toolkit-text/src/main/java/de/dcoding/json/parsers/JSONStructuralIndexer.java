@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Finds the positions of the structural characters of a UTF-8 encoded JSON text without tokenizing
+ * it. The structural characters are the brackets, the name separators and the value separators
+ * outside of strings.
+ * <p>
+ * The input is classified eight bytes at a time by bit operations on long words (SWAR), the results
+ * of 64 bytes are combined into one bit mask per block. Escaped quotation marks and the contents of
+ * strings are then masked by carry propagating bit operations, without examining single bytes. Words
+ * without quotation marks, backslashes or structural characters are skipped after one test. The
+ * positions are returned block by block, so the index never holds more than one block.
+ * <p>
+ * Used by {@link ParallelArrayParser} to find the elements of a root array in UTF-8 encoded bytes.
+ * 
+ * @since  1.1
+ */
+final class JSONStructuralIndexer {
+  private static final int BLOCK_SIZE = 64;
+  private static final long ONES = 0x0101010101010101L;
+  private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+  private static final long CASE_BITS = 0x2020202020202020L;
+  private static final long GATHER = 0x0102040810204080L;
+  private static final long ODD_BITS = 0xAAAAAAAAAAAAAAAAL;
+
+  private final byte[] input;
+  private final ByteBuffer words;
+  private final byte[] padded = new byte[BLOCK_SIZE];
+  private final ByteBuffer paddedWords = ByteBuffer.wrap(padded).order(ByteOrder.LITTLE_ENDIAN);
+  private int position;
+  private int blockPosition;
+  private long structurals;
+  private long previousEscaped;
+  private long previousInString;
+
+  /**
+   * Constructs a new instance for the specified UTF-8 encoded JSON text.
+   * 
+   * @param input The UTF-8 encoded JSON text
+   */
+  JSONStructuralIndexer(byte[] input) {
+    this.input = input;
+    this.words = ByteBuffer.wrap(input).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Returns the position of the next structural character. Characters following an unclosed string
+   * are within the string, so no further positions are returned then.
+   * 
+   * @return The position or {@code -1} at the end of the input
+   */
+  int next() {
+    while (structurals == 0) {
+      if (position >= input.length) {
+        return -1;
+      }
+      indexBlock();
+    }
+
+    int next = blockPosition + Long.numberOfTrailingZeros(structurals);
+    structurals &= structurals - 1;
+    return next;
+  }
+
+  private void indexBlock() {
+    ByteBuffer source = words;
+    int offset = position;
+    if ((position + BLOCK_SIZE) > input.length) {
+      // the padding is whitespace, so it contains no structural characters
+      Arrays.fill(padded, (byte)' ');
+      System.arraycopy(input, position, padded, 0, input.length - position);
+      source = paddedWords;
+      offset = 0;
+    }
+
+    long quotes = 0;
+    long backslashes = 0;
+    long operators = 0;
+
+    for (int i = 0; i < BLOCK_SIZE; i += 8) {
+      long word = source.getLong(offset + i);
+      long wordQuotes = equalBytes(word, '"');
+      long wordBackslashes = equalBytes(word, '\\');
+      // setting bit 5 maps '[' to '{' and ']' to '}', so both brackets take one comparison each
+      long folded = word | CASE_BITS;
+      long wordOperators = equalBytes(folded, '{') | equalBytes(folded, '}') | equalBytes(word, ':') | equalBytes(word, ',');
+
+      if ((wordQuotes | wordBackslashes | wordOperators) != 0) {
+        quotes |= gather(wordQuotes) << i;
+        backslashes |= gather(wordBackslashes) << i;
+        operators |= gather(wordOperators) << i;
+      }
+    }
+
+    quotes &= ~findEscaped(backslashes);
+
+    // the prefix xor of the quotes marks the opening quotes and the contents of strings
+    long inString = prefixXor(quotes) ^ previousInString;
+    previousInString = inString >> 63;
+
+    structurals = operators & ~inString;
+    blockPosition = position;
+    position += BLOCK_SIZE;
+  }
+
+  /**
+   * Returns the mask of the characters escaped by a backslash. Subtracting the backslashes from the
+   * bits following them carries through each run of backslashes, which distinguishes runs starting
+   * at even and odd positions and thereby runs of even and odd length.
+   */
+  private long findEscaped(long backslashes) {
+    if (backslashes == 0) {
+      long escaped = previousEscaped;
+      previousEscaped = 0;
+      return escaped;
+    }
+
+    long potentialEscapes = backslashes & ~previousEscaped;
+    long escapesAndCodes = (((potentialEscapes << 1) | ODD_BITS) - potentialEscapes) ^ ODD_BITS;
+    long escaped = escapesAndCodes ^ (backslashes | previousEscaped);
+    previousEscaped = (escapesAndCodes & backslashes) >>> 63;
+    return escaped;
+  }
+
+  /**
+   * Returns a word with the highest bit set in each byte equal to the specified value.
+   */
+  private static long equalBytes(long word, char value) {
+    long difference = word ^ (ONES * value);
+    return ~(((difference & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | difference | LOW_SEVEN_BITS);
+  }
+
+  /**
+   * Gathers the highest bits of the eight bytes of a word into the lowest eight bits.
+   */
+  private static long gather(long highBits) {
+    return ((highBits >>> 7) * GATHER) >>> 56;
+  }
+
+  private static long prefixXor(long value) {
+    long result = value;
+    result ^= result << 1;
+    result ^= result << 2;
+    result ^= result << 4;
+    result ^= result << 8;
+    result ^= result << 16;
+    result ^= result << 32;
+    return result;
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+/**
+ * Allocation free access to the tokens of a JSON text. Instead of creating a {@link de.dcoding.parsers.Token}
+ * instance per token, {@link #nextToken()} advances to the next token and returns its kind as one of the
+ * constants of this interface. The positions and characters of the current token are available until the
+ * next call of {@link #nextToken()}.
+ * 
+ * @since  1.1
+ */
+public interface JSONTokenStream {
+  /**
+   * Kind indicating the end of the input
+   */
+  int END_OF_INPUT = 0;
+
+  /**
+   * Kind of a <code>{</code>
+   */
+  int BEGIN_OBJECT = 1;
+
+  /**
+   * Kind of a <code>}</code>
+   */
+  int END_OBJECT = 2;
+
+  /**
+   * Kind of a <code>[</code>
+   */
+  int BEGIN_ARRAY = 3;
+
+  /**
+   * Kind of a <code>]</code>
+   */
+  int END_ARRAY = 4;
+
+  /**
+   * Kind of a <code>:</code>
+   */
+  int NAME_SEPARATOR = 5;
+
+  /**
+   * Kind of a <code>,</code>
+   */
+  int VALUE_SEPARATOR = 6;
+
+  /**
+   * Kind of a string including its quotation marks
+   */
+  int STRING = 7;
+
+  /**
+   * Kind of a number
+   */
+  int NUMBER = 8;
+
+  /**
+   * Kind of the literal <code>true</code>
+   */
+  int TRUE = 9;
+
+  /**
+   * Kind of the literal <code>false</code>
+   */
+  int FALSE = 10;
+
+  /**
+   * Kind of the literal <code>null</code>
+   */
+  int NULL = 11;
+
+  /**
+   * Kind of a sequence of whitespace characters, never returned by {@link #nextToken()}
+   */
+  int WHITESPACE = 12;
+
+  /**
+   * Kind indicating an illegal character at the current position
+   */
+  int ERROR = 13;
+
+  /**
+   * Advances to the next token which is not whitespace. After an {@link #ERROR}
+   * all further calls return {@link #ERROR}.
+   * 
+   * @return The kind of the token
+   */
+  int nextToken();
+
+  /**
+   * Returns the start position of the current token in the input data.
+   * 
+   * @return The start position of the current token
+   */
+  long getTokenStart();
+
+  /**
+   * Returns the position following the current token in the input data.
+   * 
+   * @return The end position of the current token
+   */
+  long getTokenEnd();
+
+  /**
+   * Returns the array containing the characters of the current {@link #STRING} or {@link #NUMBER} token.
+   * The characters of a string include the quotation marks and the escape sequences as they occur in
+   * the input. The array may be reused for the following tokens.
+   * 
+   * @return The array containing the characters
+   */
+  char[] getValueChars();
+
+  /**
+   * Returns the offset of the characters of the current token in {@link #getValueChars()}.
+   * 
+   * @return The offset of the characters
+   */
+  int getValueOffset();
+
+  /**
+   * Returns the number of characters of the current token in {@link #getValueChars()}.
+   * It is {@code 0} for tokens other than {@link #STRING} and {@link #NUMBER}.
+   * 
+   * @return The number of characters
+   */
+  int getValueLength();
+
+  /**
+   * Advances to the end of the object or array whose begin token is the current token, so the
+   * matching {@link #END_OBJECT} or {@link #END_ARRAY} becomes the current token. Only the nesting
+   * depth of brackets and the boundaries of strings are tracked, the skipped tokens are neither
+   * scanned nor validated. The default implementation counts the brackets of the tokens returned
+   * by {@link #nextToken()}, tokenizers override it to skip the characters directly.
+   * 
+   * @return The kind of the last token of the container, or {@link #END_OF_INPUT} or {@link #ERROR}
+   *         if the container is not closed
+   */
+  default int skipContainer() {
+    int depth = 1;
+
+    while (true) {
+      int kind = nextToken();
+      switch (kind) {
+        case BEGIN_OBJECT:
+        case BEGIN_ARRAY:
+          depth++;
+          break;
+        case END_OBJECT:
+        case END_ARRAY:
+          if (--depth == 0) {
+            return kind;
+          }
+          break;
+        case END_OF_INPUT:
+        case ERROR:
+          return kind;
+        default:
+          break;
+      }
+    }
+  }
+}
@@ -16,36 +16,48 @@
 
 package de.dcoding.json.parsers;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import de.dcoding.json.tokens.*;
 import de.dcoding.parsers.ErrorToken;
 import de.dcoding.parsers.Token;
 
 /**
- * Tokenizer for use in JSON parsers
+ * Tokenizer for use in JSON parsers. The input is scanned once from start to end with a cursor,
+ * the kind of each token is determined by its first character.
+ * <p>
+ * Characters are consumed in chunks through a bounded buffer which only grows if a single token
+ * is larger than the buffer. Therefore the input can be a {@link Reader} that is read incrementally.
+ * <p>
+ * The tokens are available as {@link Token} instances by the {@link Iterator} interface or without
+ * any allocation by the {@link JSONTokenStream} interface. Only one of both should be used.
  * 
  * @since  1.0
  */
-public class JSONTokenizer implements Iterator<Token> {
+public class JSONTokenizer implements Iterator<Token>, JSONTokenStream {
+  private static final String TRUE_LITERAL = "true";
+  private static final String FALSE_LITERAL = "false";
+  private static final String NULL_LITERAL = "null";
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
   private boolean erroneous;
   private String input;
-  private int position;
-  
-  private static final String TRUE_PATTERN = "true";
-  private static final String FALSE_PATTERN = "false";
-  private static final String NULL_PATTERN = "null";
-  private static final String BEGIN_OBJECT_PATTERN = "\\{";
-  private static final String END_OBJECT_PATTERN = "\\}";
-  private static final String VALUE_SEPARATOR_PATTERN = ",";
-  private static final String NAME_SEPARATOR_PATTERN = ":";
-  private static final String BEGIN_ARRAY_PATTERN = "\\[";
-  private static final String END_ARRAY_PATTERN = "\\]";
-  private static final Pattern WHITESPACE_PATTERN = Pattern.compile("[\\r\\n\\t ]+");
-  private static final Pattern NUMBER_PATTERN = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][-+]?[0-9]+)?");
-  private static final Pattern STRING_PATTERN = Pattern.compile("\"([\\x20\\x21\\u0023-\\u005b\\u005d-\\x{10ffff}]|\\\\([bfnrt\\u0022\\u005c\\u002f]|u[0-9a-fA-F]{4}))*\"");
+  private int inputPosition;
+  private int inputEnd;
+  private Reader reader;
+  private boolean endOfInput;
+  private char[] buffer;
+  private long bufferPosition;
+  private int index;
+  private int limit;
+  private long tokenStart;
+  private long tokenEnd;
+  private int valueOffset;
+  private int valueLength;
   
   /**
    * Constructs a new tokenizer implementation for textual JSON representations.
@@ -53,97 +65,537 @@ public class JSONTokenizer implements Iterator<Token> {
    * @param input The textual JSON representation
    */
   public JSONTokenizer(String input) {
-    setInput(input);
+    if (input == null) {
+      throw new IllegalArgumentException();
+    }
+
+    this.input = input;
+    inputEnd = input.length();
+    buffer = new char[Math.max(Math.min(inputEnd, DEFAULT_BUFFER_SIZE), 1)];
   }
 
-  private void setInput(String input) {
+  /**
+   * Constructs a new tokenizer for the characters of the specified string between the specified
+   * positions, used for ranges of the elements of an array parsed in parallel. The positions of the
+   * tokens are positions in the whole string.
+   */
+  JSONTokenizer(String input, int start, int end) {
     this.input = input;
-    position = 0;
+    inputPosition = start;
+    inputEnd = end;
+    bufferPosition = start;
+    buffer = new char[Math.max(Math.min(end - start, DEFAULT_BUFFER_SIZE), 1)];
+  }
+
+  /**
+   * Constructs a new tokenizer implementation for textual JSON representations which are
+   * read incrementally from the specified {@link Reader}. An {@link IOException} of the reader
+   * is thrown as an {@link UncheckedIOException} by {@link #hasNext()} and {@link #next()}.
+   * 
+   * @since 1.1
+   * @param reader The reader providing the textual JSON representation
+   */
+  public JSONTokenizer(Reader reader) {
+    if (reader == null) {
+      throw new IllegalArgumentException();
+    }
+
+    this.reader = reader;
+    buffer = new char[DEFAULT_BUFFER_SIZE];
   }
 
   /**
    * Returns if there is at least one more token or if the end of the input is reached.
    * 
    * @return If there is at least one more token
+   * @throws UncheckedIOException If reading from the underlying reader fails
    */
   @Override
   public boolean hasNext() {
-    return (!(erroneous || (input.length() == 0)));
+    return (!(erroneous || !isAvailable(0)));
   }
 
   /**
    * Returns the next token instance.
    * 
    * @return The next token instance
+   * @throws UncheckedIOException If reading from the underlying reader fails
    */
   @Override
   public Token next() {
-    Token token = null;
-    
-    if (input.matches(String.format("(?s)%s.*", WHITESPACE_PATTERN.pattern()))) {
-      Matcher matcher = WHITESPACE_PATTERN.matcher(input);
-      matcher.find();
-      token = new JSONWhitespaceToken(position);
-      input = input.substring(matcher.end());
-      position += matcher.end();
-    } else if (input.matches(String.format("(?s)%s.*", TRUE_PATTERN))) {
-      token = new JSONTrueToken(position);
-      input = input.substring(4);
-      position += 4;
-    } else if (input.matches(String.format("(?s)%s.*", FALSE_PATTERN))) {
-      token = new JSONFalseToken(position);
-      input = input.substring(5);
-      position += 5;
-    } else if (input.matches(String.format("(?s)%s.*", NULL_PATTERN))) {
-      token = new JSONNullToken(position);
-      input = input.substring(4);
-      position += 4;
-    } else if (input.matches(String.format("(?s)%s.*", NUMBER_PATTERN.pattern()))) {
-      Matcher matcher = NUMBER_PATTERN.matcher(input);
-      matcher.find();
-      String value = matcher.group();
-      token = new JSONNumberToken(position, value);
-      input = input.substring(matcher.end());
-      position += matcher.end();
-    } else if (input.matches(String.format("(?s)%s.*", STRING_PATTERN.pattern()))) {
-      Matcher matcher = STRING_PATTERN.matcher(input);
-      matcher.find();
-      String value = matcher.group();
-      token = new JSONStringToken(position, value);
-      input = input.substring(matcher.end());
-      position += matcher.end();
-    } else if (input.matches(String.format("(?s)%s.*", BEGIN_OBJECT_PATTERN))) {
-      token = new JSONBeginObjectToken(position);
-      input = input.substring(1);
-      position++;
-    } else if (input.matches(String.format("(?s)%s.*", END_OBJECT_PATTERN))) {
-      token = new JSONEndObjectToken(position);
-      input = input.substring(1);
-      position++;
-    } else if (input.matches(String.format("(?s)%s.*", VALUE_SEPARATOR_PATTERN))) {
-      token = new JSONValueSeparatorToken(position);
-      input = input.substring(1);
-      position++;
-    } else if (input.matches(String.format("(?s)%s.*", NAME_SEPARATOR_PATTERN))) {
-      token = new JSONNameSeparatorToken(position);
-      input = input.substring(1);
-      position++;
-    } else if (input.matches(String.format("(?s)%s.*", BEGIN_ARRAY_PATTERN))) {
-      token = new JSONBeginArrayToken(position);
-      input = input.substring(1);
-      position++;
-    } else if (input.matches(String.format("(?s)%s.*", END_ARRAY_PATTERN))) {
-      token = new JSONEndArrayToken(position);
-      input = input.substring(1);
-      position++;
+    int kind = scanToken();
+    if (kind == END_OF_INPUT) {
+      erroneous = true;
+    }
+
+    return createToken(this, kind);
+  }
+
+  /**
+   * Advances to the next token which is not whitespace without creating a {@link Token} instance.
+   * 
+   * @since 1.1
+   * @return The kind of the token
+   * @throws UncheckedIOException If reading from the underlying reader fails
+   */
+  @Override
+  public int nextToken() {
+    int kind;
+
+    do {
+      kind = scanToken();
+    } while (kind == WHITESPACE);
+
+    return kind;
+  }
+
+  /**
+   * Returns the start position of the current token in the input data.
+   * 
+   * @since 1.1
+   * @return The start position of the current token
+   */
+  @Override
+  public long getTokenStart() {
+    return tokenStart;
+  }
+
+  /**
+   * Returns the position following the current token in the input data.
+   * 
+   * @since 1.1
+   * @return The end position of the current token
+   */
+  @Override
+  public long getTokenEnd() {
+    return tokenEnd;
+  }
+
+  /**
+   * Returns the buffer containing the characters of the current string or number token.
+   * 
+   * @since 1.1
+   * @return The buffer containing the characters
+   */
+  @Override
+  public char[] getValueChars() {
+    return buffer;
+  }
+
+  /**
+   * Returns the offset of the characters of the current token in {@link #getValueChars()}.
+   * 
+   * @since 1.1
+   * @return The offset of the characters
+   */
+  @Override
+  public int getValueOffset() {
+    return valueOffset;
+  }
+
+  /**
+   * Returns the number of characters of the current string or number token.
+   * 
+   * @since 1.1
+   * @return The number of characters
+   */
+  @Override
+  public int getValueLength() {
+    return valueLength;
+  }
+
+  /**
+   * Advances to the end of the object or array whose begin token is the current token. The characters
+   * are passed over by only tracking the nesting depth of brackets and the boundaries of strings,
+   * without scanning tokens.
+   * 
+   * @since 1.1
+   * @return The kind of the last token of the container, or {@link #END_OF_INPUT} or {@link #ERROR}
+   *         if the container is not closed
+   * @throws UncheckedIOException If reading from the underlying reader fails
+   */
+  @Override
+  public int skipContainer() {
+    valueLength = 0;
+
+    if (erroneous) {
+      tokenStart = getPosition();
+      tokenEnd = tokenStart;
+      return ERROR;
+    }
+
+    int depth = 1;
+    boolean inString = false;
+    boolean escaped = false;
+
+    while (isAvailable(0)) {
+      char[] characters = buffer;
+      int end = limit;
+
+      for (int i = index; i < end; i++) {
+        char character = characters[i];
+
+        if (inString) {
+          if (escaped) {
+            escaped = false;
+          } else if (character == '\\') {
+            escaped = true;
+          } else if (character == '"') {
+            inString = false;
+          }
+        } else if (character == '"') {
+          inString = true;
+        } else if ((character == '{') || (character == '[')) {
+          depth++;
+        } else if (((character == '}') || (character == ']')) && (--depth == 0)) {
+          index = i;
+          tokenStart = getPosition();
+          consume(1);
+          tokenEnd = getPosition();
+          return (character == '}') ? END_OBJECT : END_ARRAY;
+        }
+      }
+
+      index = end;
+    }
+
+    tokenStart = getPosition();
+    tokenEnd = tokenStart;
+    return END_OF_INPUT;
+  }
+
+  /**
+   * Creates the {@link Token} instance for the current token of the specified stream. The position
+   * of a {@link Token} is an {@code int}, so positions beyond {@link Integer#MAX_VALUE} are reported
+   * as {@link Integer#MAX_VALUE}. Only the {@link JSONTokenStream} interface reports them exactly.
+   */
+  static Token createToken(JSONTokenStream stream, int kind) {
+    int position = (int)Math.min(stream.getTokenStart(), Integer.MAX_VALUE);
+
+    switch (kind) {
+      case WHITESPACE:
+        return new JSONWhitespaceToken(position);
+      case BEGIN_OBJECT:
+        return new JSONBeginObjectToken(position);
+      case END_OBJECT:
+        return new JSONEndObjectToken(position);
+      case BEGIN_ARRAY:
+        return new JSONBeginArrayToken(position);
+      case END_ARRAY:
+        return new JSONEndArrayToken(position);
+      case NAME_SEPARATOR:
+        return new JSONNameSeparatorToken(position);
+      case VALUE_SEPARATOR:
+        return new JSONValueSeparatorToken(position);
+      case TRUE:
+        return new JSONTrueToken(position);
+      case FALSE:
+        return new JSONFalseToken(position);
+      case NULL:
+        return new JSONNullToken(position);
+      case STRING:
+        return new JSONStringToken(position, new String(stream.getValueChars(), stream.getValueOffset(), stream.getValueLength()));
+      case NUMBER:
+        return new JSONNumberToken(position, new String(stream.getValueChars(), stream.getValueOffset(), stream.getValueLength()));
+      default:
+        return new ErrorToken(position);
+    }
+  }
+
+  private int scanToken() {
+    int kind = ERROR;
+    tokenStart = getPosition();
+    valueLength = 0;
+
+    if (erroneous) {
+      return ERROR;
     }
     
-    if (token == null) {
+    if (!isAvailable(0)) {
+      tokenEnd = tokenStart;
+      return END_OF_INPUT;
+    }
+
+    switch (charAt(0)) {
+      case ' ':
+      case '\t':
+      case '\n':
+      case '\r':
+        kind = scanWhitespace();
+        break;
+      case 't':
+        kind = scanLiteral(TRUE_LITERAL, TRUE);
+        break;
+      case 'f':
+        kind = scanLiteral(FALSE_LITERAL, FALSE);
+        break;
+      case 'n':
+        kind = scanLiteral(NULL_LITERAL, NULL);
+        break;
+      case '-':
+      case '0':
+      case '1':
+      case '2':
+      case '3':
+      case '4':
+      case '5':
+      case '6':
+      case '7':
+      case '8':
+      case '9':
+        kind = scanValue(scanNumber(), NUMBER);
+        break;
+      case '"':
+        kind = scanValue(scanString(), STRING);
+        break;
+      case '{':
+        kind = scanStructural(BEGIN_OBJECT);
+        break;
+      case '}':
+        kind = scanStructural(END_OBJECT);
+        break;
+      case ',':
+        kind = scanStructural(VALUE_SEPARATOR);
+        break;
+      case ':':
+        kind = scanStructural(NAME_SEPARATOR);
+        break;
+      case '[':
+        kind = scanStructural(BEGIN_ARRAY);
+        break;
+      case ']':
+        kind = scanStructural(END_ARRAY);
+        break;
+    }
+
+    if (kind == ERROR) {
       erroneous = true;
-      token = new ErrorToken(position);
     }
 
-    return token;
+    tokenEnd = getPosition();
+    return kind;
+  }
+
+  private long getPosition() {
+    return bufferPosition + index;
+  }
+
+  private char charAt(int offset) {
+    return buffer[index + offset];
+  }
+
+  private void consume(int length) {
+    index += length;
+  }
+
+  private boolean isAvailable(int offset) {
+    while ((index + offset) >= limit) {
+      if (!fillBuffer()) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private boolean fillBuffer() {
+    if (endOfInput) {
+      return false;
+    }
+
+    if (index > 0) {
+      System.arraycopy(buffer, index, buffer, 0, limit - index);
+      bufferPosition += index;
+      limit -= index;
+      index = 0;
+    }
+
+    if (limit == buffer.length) {
+      buffer = Arrays.copyOf(buffer, buffer.length << 1);
+    }
+
+    int count = read(buffer, limit, buffer.length - limit);
+    if (count < 0) {
+      endOfInput = true;
+      input = null;
+      reader = null;
+      return false;
+    }
+
+    limit += count;
+    return true;
+  }
+
+  private int read(char[] target, int offset, int length) {
+    if (input != null) {
+      int count = Math.min(inputEnd - inputPosition, length);
+      if (count <= 0) {
+        return -1;
+      }
+
+      input.getChars(inputPosition, inputPosition + count, target, offset);
+      inputPosition += count;
+      return count;
+    } else {
+      try {
+        int count;
+        do {
+          count = reader.read(target, offset, length);
+        } while (count == 0);
+
+        return count;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private boolean isLiteral(String literal) {
+    for (int i = 1, j = literal.length(); i < j; i++) {
+      if (!isAvailable(i) || (charAt(i) != literal.charAt(i))) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private int scanWhitespace() {
+    do {
+      consume(1);
+    } while (isAvailable(0) && isWhitespace(charAt(0)));
+
+    return WHITESPACE;
+  }
+
+  private int scanLiteral(String literal, int kind) {
+    if (!isLiteral(literal)) {
+      return ERROR;
+    }
+
+    consume(literal.length());
+    return kind;
+  }
+
+  private int scanStructural(int kind) {
+    consume(1);
+    return kind;
+  }
+
+  private int scanValue(int length, int kind) {
+    if (length < 0) {
+      return ERROR;
+    }
+
+    valueOffset = index;
+    valueLength = length;
+    consume(length);
+    return kind;
+  }
+
+  private int scanNumber() {
+    int current = 0;
+
+    if (charAt(current) == '-') {
+      current++;
+    }
+
+    if (isAvailable(current) && (charAt(current) == '0')) {
+      current++;
+    } else if (isAvailable(current) && isDigit(charAt(current))) {
+      current = skipDigits(current + 1);
+    } else {
+      return -1;
+    }
+
+    if (isAvailable(current + 1) && (charAt(current) == '.') && isDigit(charAt(current + 1))) {
+      current = skipDigits(current + 2);
+    }
+
+    if (isAvailable(current) && ((charAt(current) == 'e') || (charAt(current) == 'E'))) {
+      int exponent = current + 1;
+      if (isAvailable(exponent) && ((charAt(exponent) == '+') || (charAt(exponent) == '-'))) {
+        exponent++;
+      }
+      if (isAvailable(exponent) && isDigit(charAt(exponent))) {
+        current = skipDigits(exponent + 1);
+      }
+    }
+
+    return current;
+  }
+
+  private int skipDigits(int start) {
+    int current = start;
+
+    while (isAvailable(current) && isDigit(charAt(current))) {
+      current++;
+    }
+
+    return current;
+  }
+
+  private int scanString() {
+    int current = 1;
+
+    while (isAvailable(current)) {
+      char character = charAt(current);
+
+      if (character == '"') {
+        return current + 1;
+      } else if (character == '\\') {
+        current = scanEscapeSequence(current);
+        if (current < 0) {
+          return -1;
+        }
+      } else if (character < 0x20) {
+        return -1;
+      } else {
+        current++;
+      }
+    }
+
+    return -1;
+  }
+
+  private int scanEscapeSequence(int start) {
+    int current = start + 1;
+    if (!isAvailable(current)) {
+      return -1;
+    }
+
+    switch (charAt(current)) {
+      case '"':
+      case '\\':
+      case '/':
+      case 'b':
+      case 'f':
+      case 'n':
+      case 'r':
+      case 't':
+        return current + 1;
+      case 'u':
+        for (int i = current + 1, j = current + 5; i < j; i++) {
+          if (!isAvailable(i) || !isHexDigit(charAt(i))) {
+            return -1;
+          }
+        }
+        return current + 5;
+      default:
+        return -1;
+    }
+  }
+
+  private static boolean isWhitespace(char character) {
+    return ((character == ' ') || (character == '\t') || (character == '\n') || (character == '\r'));
+  }
+
+  private static boolean isDigit(char character) {
+    return ((character >= '0') && (character <= '9'));
+  }
+
+  private static boolean isHexDigit(char character) {
+    return (isDigit(character) || ((character >= 'a') && (character <= 'f')) || ((character >= 'A') && (character <= 'F')));
   }
 
   /**
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.util.Arrays;
+
+import de.dcoding.json.*;
+
+/**
+ * {@link JSONHandler} building a tree of {@link JSONValue}s from the received callbacks
+ * 
+ * @since  1.1
+ */
+class JSONTreeBuilder implements JSONHandler {
+  private JSONValue[] containers = new JSONValue[16];
+  private String[] keys = new String[16];
+  private int depth;
+  private JSONValue value;
+
+  /**
+   * Returns the completely built value.
+   * 
+   * @return The built value or {@code null} if no value was received
+   */
+  JSONValue getValue() {
+    return value;
+  }
+
+  @Override
+  public void startObject() {
+    startContainer(new JSONObject());
+  }
+
+  @Override
+  public void endObject() {
+    endContainer();
+  }
+
+  @Override
+  public void startArray() {
+    startContainer(new JSONArray());
+  }
+
+  @Override
+  public void endArray() {
+    endContainer();
+  }
+
+  @Override
+  public void key(CharSequence name) {
+    keys[depth - 1] = name.toString();
+  }
+
+  @Override
+  public void stringValue(CharSequence value) {
+    add(new JSONString(value.toString()));
+  }
+
+  @Override
+  public void numberValue(CharSequence value) {
+    add(new JSONNumber(value.toString()));
+  }
+
+  @Override
+  public void booleanValue(boolean value) {
+    add(value ? new JSONTrue() : new JSONFalse());
+  }
+
+  @Override
+  public void nullValue() {
+    add(new JSONNull());
+  }
+
+  private void startContainer(JSONValue container) {
+    add(container);
+
+    if (depth == containers.length) {
+      containers = Arrays.copyOf(containers, depth << 1);
+      keys = Arrays.copyOf(keys, depth << 1);
+    }
+
+    containers[depth++] = container;
+  }
+
+  private void endContainer() {
+    depth--;
+    containers[depth] = null;
+    keys[depth] = null;
+  }
+
+  private void add(JSONValue child) {
+    if (depth == 0) {
+      value = child;
+      return;
+    }
+
+    JSONValue container = containers[depth - 1];
+    if (container instanceof JSONObject) {
+      ((JSONObject)container).put(keys[depth - 1], child);
+    } else {
+      ((JSONArray)container).add(child);
+    }
+  }
+}
@@ -0,0 +1,673 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import de.dcoding.parsers.ErrorToken;
+import de.dcoding.parsers.Token;
+
+/**
+ * Tokenizer for use in JSON parsers which works directly on UTF-8 encoded bytes. Structural
+ * characters, literals and numbers are pure ASCII and are recognized on the bytes, only the
+ * contents of strings are decoded to characters. The encoding of strings is validated while
+ * decoding, malformed sequences result in an {@link ErrorToken}. A leading byte order mark is skipped.
+ * <p>
+ * Positions of tokens are byte offsets in the input. Files are read through a memory mapped window,
+ * so the bytes come straight from the page cache of the operating system and files larger than
+ * 2 GB can be tokenized. The window only slides forward when a token crosses its end and only the
+ * current window is referenced, earlier mappings are released by the garbage collector as there is
+ * no explicit unmapping. The {@link JSONTokenStream} interface reports the positions as {@code long},
+ * {@link Token} instances report positions beyond {@link Integer#MAX_VALUE} as {@link Integer#MAX_VALUE}.
+ * <p>
+ * The tokens are available as {@link Token} instances by the {@link Iterator} interface or without
+ * any allocation by the {@link JSONTokenStream} interface. Only one of both should be used.
+ * 
+ * @since  1.1
+ */
+public class JSONUTF8Tokenizer implements Iterator<Token>, JSONTokenStream {
+  private static final byte[] TRUE_LITERAL = { 't', 'r', 'u', 'e' };
+  private static final byte[] FALSE_LITERAL = { 'f', 'a', 'l', 's', 'e' };
+  private static final byte[] NULL_LITERAL = { 'n', 'u', 'l', 'l' };
+  private static final int DEFAULT_SCRATCH_SIZE = 64;
+  private static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+  private static final int MAXIMUM_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+
+  private boolean erroneous;
+  private FileChannel channel;
+  private long channelSize;
+  private int windowSize;
+  private ByteBuffer buffer;
+  private long bufferPosition;
+  private int start;
+  private int index;
+  private int limit;
+  private char[] scratch;
+  private int scratchLength;
+  private long tokenStart;
+  private long tokenEnd;
+
+  /**
+   * Constructs a new tokenizer for the specified UTF-8 encoded bytes.
+   * 
+   * @param input The UTF-8 encoded JSON text
+   */
+  public JSONUTF8Tokenizer(byte[] input) {
+    this(ByteBuffer.wrap(input));
+  }
+
+  /**
+   * Constructs a new tokenizer for the remaining bytes of the specified buffer. The position
+   * of the buffer is not changed.
+   * 
+   * @param input The buffer containing the UTF-8 encoded JSON text
+   */
+  public JSONUTF8Tokenizer(ByteBuffer input) {
+    if (input == null) {
+      throw new IllegalArgumentException();
+    }
+
+    buffer = input;
+    start = input.position();
+    index = start;
+    limit = input.limit();
+    scratch = new char[DEFAULT_SCRATCH_SIZE];
+    skipByteOrderMark();
+  }
+
+  /**
+   * Constructs a new tokenizer for the bytes of the specified file channel, starting at the
+   * beginning of the file. The file is mapped into memory through a window of 64 MB.
+   * An {@link IOException} while mapping is thrown as an {@link UncheckedIOException}
+   * by {@link #hasNext()} and {@link #next()}.
+   * 
+   * @param channel The channel of the file containing the UTF-8 encoded JSON text
+   * @throws IOException If the size of the file cannot be determined
+   */
+  public JSONUTF8Tokenizer(FileChannel channel) throws IOException {
+    this(channel, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Constructs a new tokenizer for the bytes of the specified file channel, starting at the
+   * beginning of the file. The file is mapped into memory through a window of the specified size,
+   * which is only enlarged for single tokens exceeding the size.
+   * An {@link IOException} while mapping is thrown as an {@link UncheckedIOException}
+   * by {@link #hasNext()} and {@link #next()}.
+   * 
+   * @param channel The channel of the file containing the UTF-8 encoded JSON text
+   * @param windowSize The size of the mapped window in bytes
+   * @throws IOException If the size of the file cannot be determined
+   */
+  public JSONUTF8Tokenizer(FileChannel channel, int windowSize) throws IOException {
+    if ((channel == null) || (windowSize < 1)) {
+      throw new IllegalArgumentException();
+    }
+
+    this.channel = channel;
+    this.windowSize = Math.min(windowSize, MAXIMUM_WINDOW_SIZE);
+    channelSize = channel.size();
+    scratch = new char[DEFAULT_SCRATCH_SIZE];
+    skipByteOrderMark();
+  }
+
+  private void skipByteOrderMark() {
+    if (isAvailable(2) && ((byteAt(0) & 0xFF) == 0xEF) && ((byteAt(1) & 0xFF) == 0xBB) && ((byteAt(2) & 0xFF) == 0xBF)) {
+      consume(3);
+    }
+  }
+
+  /**
+   * Returns if there is at least one more token or if the end of the input is reached.
+   * 
+   * @return If there is at least one more token
+   */
+  @Override
+  public boolean hasNext() {
+    return (!(erroneous || !isAvailable(0)));
+  }
+
+  /**
+   * Returns the next token instance.
+   * 
+   * @return The next token instance
+   */
+  @Override
+  public Token next() {
+    int kind = scanToken();
+    if (kind == END_OF_INPUT) {
+      erroneous = true;
+    }
+
+    return JSONTokenizer.createToken(this, kind);
+  }
+
+  /**
+   * Advances to the next token which is not whitespace without creating a {@link Token} instance.
+   * 
+   * @return The kind of the token
+   */
+  @Override
+  public int nextToken() {
+    int kind;
+
+    do {
+      kind = scanToken();
+    } while (kind == WHITESPACE);
+
+    return kind;
+  }
+
+  /**
+   * Returns the start position of the current token as byte offset in the input.
+   * 
+   * @return The start position of the current token
+   */
+  @Override
+  public long getTokenStart() {
+    return tokenStart;
+  }
+
+  /**
+   * Returns the position following the current token as byte offset in the input.
+   * 
+   * @return The end position of the current token
+   */
+  @Override
+  public long getTokenEnd() {
+    return tokenEnd;
+  }
+
+  /**
+   * Returns the buffer containing the decoded characters of the current string or number token.
+   * 
+   * @return The buffer containing the characters
+   */
+  @Override
+  public char[] getValueChars() {
+    return scratch;
+  }
+
+  /**
+   * Returns the offset of the characters of the current token in {@link #getValueChars()},
+   * which is always {@code 0}.
+   * 
+   * @return The offset of the characters
+   */
+  @Override
+  public int getValueOffset() {
+    return 0;
+  }
+
+  /**
+   * Returns the number of decoded characters of the current string or number token.
+   * 
+   * @return The number of characters
+   */
+  @Override
+  public int getValueLength() {
+    return scratchLength;
+  }
+
+  /**
+   * Advances to the end of the object or array whose begin token is the current token. The bytes
+   * are passed over by only tracking the nesting depth of brackets and the boundaries of strings,
+   * without scanning tokens or decoding strings. Multi-byte sequences never contain these ASCII
+   * characters, so they need no decoding.
+   * 
+   * @return The kind of the last token of the container, or {@link #END_OF_INPUT} or {@link #ERROR}
+   *         if the container is not closed
+   */
+  @Override
+  public int skipContainer() {
+    scratchLength = 0;
+
+    if (erroneous) {
+      tokenStart = getPosition();
+      tokenEnd = tokenStart;
+      return ERROR;
+    }
+
+    int depth = 1;
+    boolean inString = false;
+    boolean escaped = false;
+
+    while (isAvailable(0)) {
+      ByteBuffer bytes = buffer;
+      int end = limit;
+
+      for (int i = index; i < end; i++) {
+        byte value = bytes.get(i);
+
+        if (inString) {
+          if (escaped) {
+            escaped = false;
+          } else if (value == '\\') {
+            escaped = true;
+          } else if (value == '"') {
+            inString = false;
+          }
+        } else if (value == '"') {
+          inString = true;
+        } else if ((value == '{') || (value == '[')) {
+          depth++;
+        } else if (((value == '}') || (value == ']')) && (--depth == 0)) {
+          index = i;
+          tokenStart = getPosition();
+          consume(1);
+          tokenEnd = getPosition();
+          return (value == '}') ? END_OBJECT : END_ARRAY;
+        }
+      }
+
+      index = end;
+    }
+
+    tokenStart = getPosition();
+    tokenEnd = tokenStart;
+    return END_OF_INPUT;
+  }
+
+  private int scanToken() {
+    int kind = ERROR;
+    tokenStart = getPosition();
+    scratchLength = 0;
+
+    if (erroneous) {
+      return ERROR;
+    }
+
+    if (!isAvailable(0)) {
+      tokenEnd = tokenStart;
+      return END_OF_INPUT;
+    }
+
+    switch (byteAt(0)) {
+      case ' ':
+      case '\t':
+      case '\n':
+      case '\r':
+        kind = scanWhitespace();
+        break;
+      case 't':
+        kind = scanLiteral(TRUE_LITERAL, TRUE);
+        break;
+      case 'f':
+        kind = scanLiteral(FALSE_LITERAL, FALSE);
+        break;
+      case 'n':
+        kind = scanLiteral(NULL_LITERAL, NULL);
+        break;
+      case '-':
+      case '0':
+      case '1':
+      case '2':
+      case '3':
+      case '4':
+      case '5':
+      case '6':
+      case '7':
+      case '8':
+      case '9':
+        kind = scanNumberValue();
+        break;
+      case '"':
+        kind = scanStringValue();
+        break;
+      case '{':
+        kind = scanStructural(BEGIN_OBJECT);
+        break;
+      case '}':
+        kind = scanStructural(END_OBJECT);
+        break;
+      case ',':
+        kind = scanStructural(VALUE_SEPARATOR);
+        break;
+      case ':':
+        kind = scanStructural(NAME_SEPARATOR);
+        break;
+      case '[':
+        kind = scanStructural(BEGIN_ARRAY);
+        break;
+      case ']':
+        kind = scanStructural(END_ARRAY);
+        break;
+    }
+
+    if (kind == ERROR) {
+      erroneous = true;
+      scratchLength = 0;
+    }
+
+    tokenEnd = getPosition();
+    return kind;
+  }
+
+  private long getPosition() {
+    return (bufferPosition + index) - start;
+  }
+
+  private byte byteAt(int offset) {
+    return buffer.get(index + offset);
+  }
+
+  private void consume(int length) {
+    index += length;
+  }
+
+  private boolean isAvailable(int offset) {
+    while ((index + offset) >= limit) {
+      if (!slideWindow(offset)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Moves the window to the current token, which crosses the end of the window. Called only when
+   * the requested offset is beyond the window, so each byte of the file is mapped about once.
+   */
+  private boolean slideWindow(int offset) {
+    if (channel == null) {
+      return false;
+    }
+
+    long position = bufferPosition + index;
+    long remaining = channelSize - position;
+    if (offset >= remaining) {
+      return false;
+    }
+
+    while ((windowSize <= offset) && (windowSize < MAXIMUM_WINDOW_SIZE)) {
+      windowSize = (int)Math.min((long)windowSize << 1, MAXIMUM_WINDOW_SIZE);
+    }
+    if (windowSize <= offset) {
+      return false;
+    }
+
+    // the previous window is dropped first, so it can be reclaimed if mapping runs out of memory
+    buffer = null;
+    bufferPosition = position;
+    index = 0;
+    limit = 0;
+
+    try {
+      buffer = channel.map(MapMode.READ_ONLY, position, Math.min(remaining, windowSize));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    limit = buffer.limit();
+    return true;
+  }
+
+  private boolean isLiteral(byte[] literal) {
+    for (int i = 1, j = literal.length; i < j; i++) {
+      if (!isAvailable(i) || (byteAt(i) != literal[i])) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private int scanWhitespace() {
+    do {
+      consume(1);
+    } while (isAvailable(0) && isWhitespace(byteAt(0)));
+
+    return WHITESPACE;
+  }
+
+  private int scanLiteral(byte[] literal, int kind) {
+    if (!isLiteral(literal)) {
+      return ERROR;
+    }
+
+    consume(literal.length);
+    return kind;
+  }
+
+  private int scanStructural(int kind) {
+    consume(1);
+    return kind;
+  }
+
+  private int scanNumberValue() {
+    int length = scanNumber();
+    if (length < 0) {
+      return ERROR;
+    }
+
+    for (int i = 0; i < length; i++) {
+      appendToScratch((char)byteAt(i));
+    }
+
+    consume(length);
+    return NUMBER;
+  }
+
+  private int scanNumber() {
+    int current = 0;
+
+    if (byteAt(current) == '-') {
+      current++;
+    }
+
+    if (isAvailable(current) && (byteAt(current) == '0')) {
+      current++;
+    } else if (isAvailable(current) && isDigit(byteAt(current))) {
+      current = skipDigits(current + 1);
+    } else {
+      return -1;
+    }
+
+    if (isAvailable(current + 1) && (byteAt(current) == '.') && isDigit(byteAt(current + 1))) {
+      current = skipDigits(current + 2);
+    }
+
+    if (isAvailable(current) && ((byteAt(current) == 'e') || (byteAt(current) == 'E'))) {
+      int exponent = current + 1;
+      if (isAvailable(exponent) && ((byteAt(exponent) == '+') || (byteAt(exponent) == '-'))) {
+        exponent++;
+      }
+      if (isAvailable(exponent) && isDigit(byteAt(exponent))) {
+        current = skipDigits(exponent + 1);
+      }
+    }
+
+    return current;
+  }
+
+  private int skipDigits(int start) {
+    int current = start;
+
+    while (isAvailable(current) && isDigit(byteAt(current))) {
+      current++;
+    }
+
+    return current;
+  }
+
+  private int scanStringValue() {
+    int length = scanAndDecodeString();
+    if (length < 0) {
+      return ERROR;
+    }
+
+    consume(length);
+    return STRING;
+  }
+
+  private int scanAndDecodeString() {
+    int current = 1;
+    scratchLength = 0;
+    appendToScratch('"');
+
+    while (isAvailable(current)) {
+      int value = byteAt(current) & 0xFF;
+
+      if (value == '"') {
+        appendToScratch('"');
+        return current + 1;
+      } else if (value == '\\') {
+        current = scanEscapeSequence(current);
+      } else if (value < 0x20) {
+        return -1;
+      } else if (value < 0x80) {
+        appendToScratch((char)value);
+        current++;
+      } else {
+        current = decodeMultiByteSequence(current);
+      }
+
+      if (current < 0) {
+        return -1;
+      }
+    }
+
+    return -1;
+  }
+
+  private int scanEscapeSequence(int start) {
+    int current = start + 1;
+    if (!isAvailable(current)) {
+      return -1;
+    }
+
+    appendToScratch('\\');
+    byte value = byteAt(current);
+
+    switch (value) {
+      case '"':
+      case '\\':
+      case '/':
+      case 'b':
+      case 'f':
+      case 'n':
+      case 'r':
+      case 't':
+        appendToScratch((char)value);
+        return current + 1;
+      case 'u':
+        appendToScratch('u');
+        for (int i = current + 1, j = current + 5; i < j; i++) {
+          if (!isAvailable(i) || !isHexDigit(byteAt(i))) {
+            return -1;
+          }
+          appendToScratch((char)byteAt(i));
+        }
+        return current + 5;
+      default:
+        return -1;
+    }
+  }
+
+  private int decodeMultiByteSequence(int start) {
+    int first = byteAt(start) & 0xFF;
+    int length;
+    int minimumSecond = 0x80;
+    int maximumSecond = 0xBF;
+    int codePoint;
+
+    if ((first >= 0xC2) && (first <= 0xDF)) {
+      length = 2;
+      codePoint = first & 0x1F;
+    } else if ((first >= 0xE0) && (first <= 0xEF)) {
+      length = 3;
+      codePoint = first & 0x0F;
+      if (first == 0xE0) {
+        minimumSecond = 0xA0;
+      } else if (first == 0xED) {
+        maximumSecond = 0x9F;
+      }
+    } else if ((first >= 0xF0) && (first <= 0xF4)) {
+      length = 4;
+      codePoint = first & 0x07;
+      if (first == 0xF0) {
+        minimumSecond = 0x90;
+      } else if (first == 0xF4) {
+        maximumSecond = 0x8F;
+      }
+    } else {
+      return -1;
+    }
+
+    if (!isAvailable(start + length - 1)) {
+      return -1;
+    }
+
+    for (int i = 1; i < length; i++) {
+      int continuation = byteAt(start + i) & 0xFF;
+      int minimum = (i == 1) ? minimumSecond : 0x80;
+      int maximum = (i == 1) ? maximumSecond : 0xBF;
+
+      if ((continuation < minimum) || (continuation > maximum)) {
+        return -1;
+      }
+      codePoint = (codePoint << 6) | (continuation & 0x3F);
+    }
+
+    if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+      appendToScratch(Character.highSurrogate(codePoint));
+      appendToScratch(Character.lowSurrogate(codePoint));
+    } else {
+      appendToScratch((char)codePoint);
+    }
+
+    return start + length;
+  }
+
+  private void appendToScratch(char character) {
+    if (scratchLength == scratch.length) {
+      scratch = Arrays.copyOf(scratch, scratch.length << 1);
+    }
+
+    scratch[scratchLength++] = character;
+  }
+
+  private static boolean isWhitespace(byte value) {
+    return ((value == ' ') || (value == '\t') || (value == '\n') || (value == '\r'));
+  }
+
+  private static boolean isDigit(byte value) {
+    return ((value >= '0') && (value <= '9'));
+  }
+
+  private static boolean isHexDigit(byte value) {
+    return (isDigit(value) || ((value >= 'a') && (value <= 'f')) || ((value >= 'A') && (value <= 'F')));
+  }
+
+  /**
+   * Would remove the current token instance from the underlying collection.
+   * It is not supported by the current implementation.
+   * 
+   * @throws UnsupportedOperationException The method is not supported
+   */
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.util.Map;
+
+import de.dcoding.json.JSONObject;
+import de.dcoding.json.JSONValue;
+import de.dcoding.parsers.ParserException;
+
+/**
+ * {@link JSONObject} reading its members from a {@link JSONIndex} on first access. Nested objects
+ * and arrays are lazy themselves, so only the accessed parts of a document are materialized.
+ * Malformed members are detected on first access, which then fails with an {@link IllegalStateException}
+ * caused by a {@link ParserException}.
+ * 
+ * @since  1.1
+ */
+class LazyJSONObject extends JSONObject {
+  private final int position;
+  private volatile JSONIndex index;
+
+  /**
+   * Constructs a new object reading its members from the specified position of the index.
+   */
+  LazyJSONObject(JSONIndex index, int position) {
+    this.index = index;
+    this.position = position;
+  }
+
+  /**
+   * Returns the map backing this object after reading the members from the index once.
+   * 
+   * @return The map of the members
+   * @throws IllegalStateException If the members are malformed
+   */
+  @Override
+  protected Map<String, JSONValue> getMembers() {
+    Map<String, JSONValue> members = super.getMembers();
+    if (index != null) {
+      synchronized (this) {
+        if (index != null) {
+          try {
+            index.readMembers(position, members);
+          } catch (ParserException e) {
+            members.clear();
+            throw new IllegalStateException(e);
+          }
+          index = null;
+        }
+      }
+    }
+
+    return members;
+  }
+}
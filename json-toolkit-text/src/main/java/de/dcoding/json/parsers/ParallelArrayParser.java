@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import de.dcoding.json.JSONArray;
+import de.dcoding.json.JSONValue;
+import de.dcoding.parsers.ParserException;
+
+/**
+ * Parses the elements of a root array in parallel. The value separators of the root array are found
+ * by a scan tracking only the nesting of brackets and the boundaries of strings, so the elements can be
+ * divided into ranges without tokenizing them. The ranges are split recursively in a
+ * {@link ForkJoinPool} with the requested number of threads, which is created for each call, so
+ * neither the common pool nor its other users are affected. Each range is parsed independently by
+ * {@link JSONLLParser#parseValues} into its own slice of one array of the elements.
+ * <p>
+ * The structural characters of UTF-8 encoded bytes are found by the {@link JSONStructuralIndexer},
+ * which classifies eight bytes at a time, characters are scanned one by one.
+ * 
+ * @since  1.1
+ */
+final class ParallelArrayParser {
+  private static final int RANGES_PER_THREAD = 8;
+
+  private ParallelArrayParser() {
+  }
+
+  /**
+   * Parses the specified UTF-8 encoded input if its root is an array of at least two elements.
+   * 
+   * @return The parsed array or {@code null} if the input is no such array or if it is malformed
+   */
+  static JSONValue parse(JSONLLParser parser, byte[] input, int parallelism) {
+    return parse(parser, findBoundaries(input), parallelism,
+        (start, end) -> new JSONUTF8Tokenizer(ByteBuffer.wrap(input, start, end - start)));
+  }
+
+  /**
+   * Parses the specified input if its root is an array of at least two elements.
+   * 
+   * @return The parsed array or {@code null} if the input is no such array or if it is malformed
+   */
+  static JSONValue parse(JSONLLParser parser, String input, int parallelism) {
+    return parse(parser, findBoundaries(input), parallelism, (start, end) -> new JSONTokenizer(input, start, end));
+  }
+
+  private static JSONValue parse(JSONLLParser parser, int[] boundaries, int parallelism, RangeTokenizer tokenizer) {
+    if (boundaries == null) {
+      return null;
+    }
+
+    int elements = boundaries.length - 1;
+    int threshold = Math.max(1, elements / (parallelism * RANGES_PER_THREAD));
+    JSONValue[] values = new JSONValue[elements];
+
+    RangeTask task = new RangeTask(parser, tokenizer, boundaries, values, 0, elements, threshold);
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      if (!pool.invoke(task)) {
+        return null;
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    return new JSONArray(Arrays.asList(values));
+  }
+
+  /**
+   * Returns the positions of the opening bracket, the value separators and the closing bracket of a
+   * root array, so the elements are located between two consecutive boundaries.
+   * 
+   * @return The boundaries or {@code null} if the root is no array of at least two elements, if its
+   *         brackets are not balanced or if it is followed by further characters
+   */
+  static int[] findBoundaries(CharSequence input) {
+    int length = input.length();
+    int index = skipWhitespace(input, 0);
+    if ((index == length) || (input.charAt(index) != '[')) {
+      return null;
+    }
+
+    int[] boundaries = new int[16];
+    int count = 0;
+    int depth = 0;
+
+    while (index < length) {
+      char character = input.charAt(index);
+
+      if (character == '"') {
+        index = skipString(input, index);
+        if (index < 0) {
+          return null;
+        }
+        continue;
+      } else if ((character == '[') || (character == '{')) {
+        if (depth++ == 0) {
+          boundaries = add(boundaries, count++, index);
+        }
+      } else if ((character == ']') || (character == '}')) {
+        if (--depth == 0) {
+          if (character != ']') {
+            return null;
+          }
+          boundaries = add(boundaries, count++, index);
+          break;
+        }
+      } else if ((character == ',') && (depth == 1)) {
+        boundaries = add(boundaries, count++, index);
+      }
+      index++;
+    }
+
+    if ((depth != 0) || (count < 3) || (skipWhitespace(input, index + 1) != length)) {
+      return null;
+    }
+
+    return Arrays.copyOf(boundaries, count);
+  }
+
+  /**
+   * Returns the positions of the opening bracket, the value separators and the closing bracket of a
+   * root array in the specified UTF-8 encoded bytes. Only the structural characters found by the
+   * {@link JSONStructuralIndexer} are looked at.
+   * 
+   * @return The boundaries or {@code null} if the root is no array of at least two elements, if its
+   *         brackets are not balanced or if it is followed by further characters
+   */
+  static int[] findBoundaries(byte[] input) {
+    JSONStructuralIndexer indexer = new JSONStructuralIndexer(input);
+    int index = indexer.next();
+    if ((index < 0) || (input[index] != '[') || (skipWhitespace(input, 0) != index)) {
+      return null;
+    }
+
+    int[] boundaries = new int[16];
+    int count = 0;
+    int depth = 0;
+
+    for (; index >= 0; index = indexer.next()) {
+      byte character = input[index];
+
+      if ((character == '[') || (character == '{')) {
+        if (depth++ == 0) {
+          boundaries = add(boundaries, count++, index);
+        }
+      } else if ((character == ']') || (character == '}')) {
+        if (--depth == 0) {
+          if (character != ']') {
+            return null;
+          }
+          boundaries = add(boundaries, count++, index);
+          break;
+        }
+      } else if ((character == ',') && (depth == 1)) {
+        boundaries = add(boundaries, count++, index);
+      }
+    }
+
+    if ((depth != 0) || (count < 3) || (skipWhitespace(input, index + 1) != input.length)) {
+      return null;
+    }
+
+    return Arrays.copyOf(boundaries, count);
+  }
+
+  private static int skipString(CharSequence input, int start) {
+    for (int i = start + 1, j = input.length(); i < j; i++) {
+      char character = input.charAt(i);
+      if (character == '"') {
+        return i + 1;
+      } else if (character == '\\') {
+        i++;
+      }
+    }
+
+    return -1;
+  }
+
+  private static int skipWhitespace(CharSequence input, int start) {
+    int index = start;
+    while ((index < input.length()) && isWhitespace(input.charAt(index))) {
+      index++;
+    }
+
+    return index;
+  }
+
+  private static int skipWhitespace(byte[] input, int start) {
+    int index = start;
+    while ((index < input.length) && isWhitespace((char)input[index])) {
+      index++;
+    }
+
+    return index;
+  }
+
+  private static boolean isWhitespace(char character) {
+    return (character == ' ') || (character == '\t') || (character == '\n') || (character == '\r');
+  }
+
+  private static int[] add(int[] boundaries, int index, int position) {
+    int[] result = (index == boundaries.length) ? Arrays.copyOf(boundaries, index << 1) : boundaries;
+    result[index] = position;
+    return result;
+  }
+
+  /**
+   * Creates the tokenizer for the characters or bytes between two positions of the input.
+   */
+  private interface RangeTokenizer {
+    JSONTokenStream tokenize(int start, int end);
+  }
+
+  /**
+   * Parses the elements between two boundaries into their slice of the array of the elements,
+   * splitting the range until it is below the threshold. Results in {@code false} if a range
+   * is malformed.
+   */
+  private static class RangeTask extends RecursiveTask<Boolean> {
+    private static final long serialVersionUID = 1L;
+
+    private final JSONLLParser parser;
+    private final RangeTokenizer tokenizer;
+    private final int[] boundaries;
+    private final JSONValue[] values;
+    private final int first;
+    private final int last;
+    private final int threshold;
+
+    private RangeTask(JSONLLParser parser, RangeTokenizer tokenizer, int[] boundaries, JSONValue[] values, int first, int last, int threshold) {
+      this.parser = parser;
+      this.tokenizer = tokenizer;
+      this.boundaries = boundaries;
+      this.values = values;
+      this.first = first;
+      this.last = last;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected Boolean compute() {
+      if ((last - first) <= threshold) {
+        JSONTokenStream tokens = tokenizer.tokenize(boundaries[first] + 1, boundaries[last]);
+
+        try {
+          parser.parseValues(tokens, 1, values, first, last - first);
+        } catch (ParserException e) {
+          return Boolean.FALSE;
+        }
+
+        return Boolean.TRUE;
+      }
+
+      int middle = (first + last) >>> 1;
+      RangeTask left = new RangeTask(parser, tokenizer, boundaries, values, first, middle, threshold);
+      left.fork();
+      boolean right = new RangeTask(parser, tokenizer, boundaries, values, middle, last, threshold).compute();
+
+      return (left.join() && right);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+/**
+ * Bounded cache of canonical {@link String} instances for character ranges. Repeated member names
+ * of a document are thereby represented by one instance each. The cache is direct mapped, so
+ * colliding strings replace each other and the retained memory is limited.
+ * <p>
+ * Concurrent use is safe, as {@link String}s are immutable. A lost update merely causes a cache miss.
+ * 
+ * @since  1.1
+ */
+class StringCache {
+  /**
+   * The maximum length of cached strings. Longer strings are created but not cached.
+   */
+  static final int MAX_LENGTH = 64;
+
+  private static final int SIZE = 2048;
+
+  private final String[] entries = new String[SIZE];
+
+  /**
+   * Returns the canonical string of the specified characters, without creating an intermediate
+   * string if the characters are cached already.
+   * 
+   * @param chars The array containing the characters
+   * @param offset The offset of the first character
+   * @param length The number of characters
+   * @return The canonical string of the characters
+   */
+  String get(char[] chars, int offset, int length) {
+    if (length > MAX_LENGTH) {
+      return new String(chars, offset, length);
+    }
+
+    int hash = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      hash = 31 * hash + chars[i];
+    }
+
+    int index = (hash ^ (hash >>> 16)) & (SIZE - 1);
+    String entry = entries[index];
+    if ((entry != null) && matches(entry, chars, offset, length)) {
+      return entry;
+    }
+
+    entry = new String(chars, offset, length);
+    entries[index] = entry;
+    return entry;
+  }
+
+  private static boolean matches(String entry, char[] chars, int offset, int length) {
+    if (entry.length() != length) {
+      return false;
+    }
+
+    for (int i = 0; i < length; i++) {
+      if (entry.charAt(i) != chars[offset + i]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+}
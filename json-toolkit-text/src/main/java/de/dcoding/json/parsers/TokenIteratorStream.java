@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import java.util.Iterator;
+
+import de.dcoding.json.tokens.*;
+import de.dcoding.parsers.Token;
+
+/**
+ * Adapter providing the tokens of a tokenizer which only implements the {@link Iterator} interface
+ * as a {@link JSONTokenStream}
+ * 
+ * @since  1.1
+ */
+class TokenIteratorStream implements JSONTokenStream {
+  private static final char[] NO_CHARS = new char[0];
+
+  private final Iterator<? extends Token> tokenizer;
+  private boolean erroneous;
+  private long tokenStart;
+  private long tokenEnd;
+  private char[] valueChars = NO_CHARS;
+
+  /**
+   * Constructs a new adapter for the specified tokenizer.
+   */
+  TokenIteratorStream(Iterator<? extends Token> tokenizer) {
+    this.tokenizer = tokenizer;
+  }
+
+  /**
+   * Returns the specified tokenizer if it is a {@link JSONTokenStream}, otherwise an adapter for it.
+   */
+  static JSONTokenStream of(Iterator<? extends Token> tokenizer) {
+    if (tokenizer instanceof JSONTokenStream) {
+      return (JSONTokenStream)tokenizer;
+    }
+
+    return new TokenIteratorStream(tokenizer);
+  }
+
+  @Override
+  public int nextToken() {
+    valueChars = NO_CHARS;
+
+    while (!erroneous && tokenizer.hasNext()) {
+      int kind = accept(tokenizer.next());
+
+      if (kind != WHITESPACE) {
+        return kind;
+      }
+    }
+
+    return erroneous ? ERROR : END_OF_INPUT;
+  }
+
+  /**
+   * Makes the specified token the current token and returns its kind.
+   */
+  int accept(Token token) {
+    int kind = getKind(token);
+    tokenStart = token.at();
+    valueChars = NO_CHARS;
+
+    if (kind == ERROR) {
+      erroneous = true;
+    } else if ((kind == STRING) || (kind == NUMBER)) {
+      valueChars = ((ValuedJSONToken<?>)token).getValue().toString().toCharArray();
+    }
+    tokenEnd = tokenStart + getLength(kind);
+
+    return kind;
+  }
+
+  private int getLength(int kind) {
+    switch (kind) {
+      case STRING:
+      case NUMBER:
+        return valueChars.length;
+      case TRUE:
+      case NULL:
+        return 4;
+      case FALSE:
+        return 5;
+      case ERROR:
+      case WHITESPACE:
+        return 0;
+      default:
+        return 1;
+    }
+  }
+
+  /**
+   * Returns the kind of the specified token.
+   */
+  static int getKind(Token token) {
+    if (token instanceof JSONBeginObjectToken) {
+      return BEGIN_OBJECT;
+    } else if (token instanceof JSONEndObjectToken) {
+      return END_OBJECT;
+    } else if (token instanceof JSONBeginArrayToken) {
+      return BEGIN_ARRAY;
+    } else if (token instanceof JSONEndArrayToken) {
+      return END_ARRAY;
+    } else if (token instanceof JSONNameSeparatorToken) {
+      return NAME_SEPARATOR;
+    } else if (token instanceof JSONValueSeparatorToken) {
+      return VALUE_SEPARATOR;
+    } else if (token instanceof JSONStringToken) {
+      return STRING;
+    } else if (token instanceof JSONNumberToken) {
+      return NUMBER;
+    } else if (token instanceof JSONTrueToken) {
+      return TRUE;
+    } else if (token instanceof JSONFalseToken) {
+      return FALSE;
+    } else if (token instanceof JSONNullToken) {
+      return NULL;
+    } else if (token instanceof JSONWhitespaceToken) {
+      return WHITESPACE;
+    } else {
+      return ERROR;
+    }
+  }
+
+  @Override
+  public long getTokenStart() {
+    return tokenStart;
+  }
+
+  @Override
+  public long getTokenEnd() {
+    return tokenEnd;
+  }
+
+  @Override
+  public char[] getValueChars() {
+    return valueChars;
+  }
+
+  @Override
+  public int getValueOffset() {
+    return 0;
+  }
+
+  @Override
+  public int getValueLength() {
+    return valueChars.length;
+  }
+}
@@ -16,19 +16,45 @@
 
 package de.dcoding.parsers;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Abstract base class for LL parser implementations
+ * Abstract base class for LL parser implementations. Tokens are pulled from the tokenizer
+ * on demand into the lookahead, so the parsing process starts with the first token and only
+ * holds a constant number of tokens at any time.
+ * <p>
+ * The tokenizer and the lookahead of a parsing process are held per call in a {@link TokenState}
+ * bound to the calling thread, so an instance can be used by several threads at the same time.
+ * Subclasses still reading the deprecated {@link #lookahead} field can only be used by one thread
+ * at a time.
+ * Implementations should look up the state once with {@link #getTokenState()} at the start of
+ * {@link #processStartSymbol()} and pass it on, as {@link #getLookahead(int)} and {@link #nextToken()}
+ * look it up on every call.
  * 
  * @since  1.0
  */
 public abstract class LLParser<T> extends Parser<T> {
-  private LinkedList<Token> tokens;
+  private final ThreadLocal<TokenState> states = new ThreadLocal<>();
+  private final AtomicReference<Thread> lookaheadOwner = new AtomicReference<>();
+  private final int lookaheadSize;
+
   /**
    * The lookahead tokens that are used by the parsing process.
+   * <p>
+   * The field is only assigned by one thread at a time: the first thread starting to parse while no
+   * other thread is parsing. Parsing processes of other threads running at the same time leave it
+   * unassigned, so they must not read it. It is only correct while the instance is used by a single
+   * thread.
+   * 
+   * @deprecated Use {@link #getTokenState()} or {@link #getLookahead(int)} instead, which return the
+   *             lookahead of the parsing process of the current thread. The field will be removed in
+   *             the next release.
    */
+  @Deprecated
   protected Token[] lookahead;
 
   /**
@@ -37,6 +63,11 @@ public abstract class LLParser<T> extends Parser<T> {
    * @param lookahead The size of the lookahead that will be used for the LL parser
    */
   protected LLParser(int lookahead) {
+    if (lookahead < 1) {
+      throw new IllegalArgumentException();
+    }
+
+    this.lookaheadSize = lookahead;
     this.lookahead = new Token[lookahead];
   }
 
@@ -49,24 +80,92 @@ public abstract class LLParser<T> extends Parser<T> {
    */
   @Override
   public T parse(String input) throws ParserException {
-    initializeTokens(input);
-    
-    return processStartSymbol();
+    return parse(getTokenizer(input));
   }
 
-  private void initializeTokens(String input) throws ParserException {
-    Iterator<? extends Token> tokenizer = getTokenizer(input);
-    tokens = new LinkedList<Token>();
+  /**
+   * Parse the characters of the given reader into an object defined by concrete implementation of class.
+   * The tokens are read incrementally from the input by the tokenizer returned by {@link #getTokenizer(Reader)}.
+   * 
+   * @since 1.1
+   * @param input The reader providing the input that will be parsed
+   * @return The parsed object
+   * @throws IOException If reading from the reader fails
+   * @throws ParserException If parsing malformed data
+   */
+  @Override
+  public T parse(Reader input) throws IOException, ParserException {
+    if (input == null) {
+      return parse((String)null);
+    }
+
+    try {
+      return parse(getTokenizer(input));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
 
-    while (tokenizer.hasNext()) {
-      Token token = tokenizer.next();
-      
-      if (isRelevantToken(token)) {
-        tokens.add(token);
+  /**
+   * Parse the tokens provided by the specified tokenizer into an object defined by concrete
+   * implementation of class. The lookahead is filled with the first relevant tokens before
+   * {@link #processStartSymbol()} is called.
+   * 
+   * @since 1.1
+   * @param tokenizer The tokenizer providing the tokens of the input
+   * @return The parsed object
+   * @throws ParserException If parsing malformed data
+   */
+  @SuppressWarnings("deprecation")
+  protected T parse(Iterator<? extends Token> tokenizer) throws ParserException {
+    // a parsing process started while processing another one on the same thread is nested
+    TokenState previous = states.get();
+    TokenState state = new TokenState(tokenizer, lookaheadSize);
+    states.set(state);
+
+    Thread thread = Thread.currentThread();
+    boolean owning = (lookaheadOwner.get() == thread) || lookaheadOwner.compareAndSet(null, thread);
+
+    try {
+      state.initialize();
+      if (owning) {
+        lookahead = state.lookahead;
+      }
+      return processStartSymbol();
+    } finally {
+      if (previous != null) {
+        states.set(previous);
+        if (owning) {
+          lookahead = previous.lookahead;
+        }
+      } else {
+        states.remove();
+        if (owning) {
+          lookaheadOwner.set(null);
+        }
       }
     }
+  }
 
-    updateLookahead();
+  /**
+   * Returns a tokenizer implementation which reads the input from the specified reader. An
+   * {@link IOException} of the reader is thrown as {@link UncheckedIOException}.
+   * <p>
+   * The default implementation reads the complete input into a string and passes it to
+   * {@link #getTokenizer(String)}. Implementations capable of tokenizing the input incrementally
+   * should override this method.
+   * 
+   * @since 1.1
+   * @param input The reader providing the input that will be parsed
+   * @return The tokenizer instance
+   * @throws UncheckedIOException If reading from the reader fails
+   */
+  protected Iterator<? extends Token> getTokenizer(Reader input) {
+    try {
+      return getTokenizer(read(input));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   /**
@@ -78,24 +177,46 @@ public abstract class LLParser<T> extends Parser<T> {
    */
   protected abstract boolean isRelevantToken(Token token) throws ParserException;
 
-  private void updateLookahead() {
-    int tokensSize = tokens.size();
-
-    for (int i = 0, j = lookahead.length; i < j; i++) {
-      if (i < tokensSize) {
-        lookahead[i] = tokens.get(i);
-      } else {
-        lookahead[i] = null;
-      }
+  /**
+   * Returns the tokenizer and the lookahead of the parsing process of the current thread.
+   * 
+   * @since 1.1
+   * @return The state of the parsing process
+   * @throws IllegalStateException If the current thread is not parsing
+   */
+  protected TokenState getTokenState() {
+    TokenState state = states.get();
+    if (state == null) {
+      throw new IllegalStateException("No parsing process on the current thread");
     }
+
+    return state;
+  }
+
+  /**
+   * Returns the lookahead token at the specified offset from the current token. The state of the
+   * parsing process is looked up on every call, see {@link TokenState#getLookahead(int)}.
+   * 
+   * @since 1.1
+   * @param index The offset in the lookahead, {@code 0} is the current token
+   * @return The token or {@code null} if the end of the input is reached
+   * @throws IndexOutOfBoundsException If the index is not within the lookahead size
+   * @throws IllegalStateException If the current thread is not parsing
+   */
+  protected Token getLookahead(int index) {
+    return getTokenState().getLookahead(index);
   }
 
   /**
-   * Updates internal data structures while iterating over tokens.
+   * Consumes the current token and pulls the next relevant token from the tokenizer
+   * into the lookahead. The state of the parsing process is looked up on every call,
+   * see {@link TokenState#nextToken()}.
+   * 
+   * @throws ParserException If the pulled token is indicating an error state
+   * @throws IllegalStateException If the current thread is not parsing
    */
-  protected void nextToken() {
-    tokens.pop();
-    updateLookahead();
+  protected void nextToken() throws ParserException {
+    getTokenState().nextToken();
   }
 
   /**
@@ -105,4 +226,72 @@ public abstract class LLParser<T> extends Parser<T> {
    * @throws ParserException If processing malformed data
    */
   protected abstract T processStartSymbol() throws ParserException;
+
+  /**
+   * The tokenizer and the lookahead of one parsing process
+   * 
+   * @since 1.1
+   */
+  protected final class TokenState {
+    private final Iterator<? extends Token> tokenizer;
+    private final Token[] lookahead;
+
+    private TokenState(Iterator<? extends Token> tokenizer, int size) {
+      this.tokenizer = tokenizer;
+      this.lookahead = new Token[size];
+    }
+
+    private void initialize() throws ParserException {
+      for (int i = 0, j = lookahead.length; i < j; i++) {
+        lookahead[i] = pullRelevantToken();
+      }
+    }
+
+    /**
+     * Returns the tokenizer of the parsing process. The tokens of the lookahead are already pulled
+     * from it.
+     * 
+     * @return The tokenizer
+     */
+    public Iterator<? extends Token> getTokenizer() {
+      return tokenizer;
+    }
+
+    /**
+     * Returns the lookahead token at the specified offset from the current token.
+     * 
+     * @param index The offset in the lookahead, {@code 0} is the current token
+     * @return The token or {@code null} if the end of the input is reached
+     * @throws IndexOutOfBoundsException If the index is not within the lookahead size
+     */
+    public Token getLookahead(int index) {
+      return lookahead[index];
+    }
+
+    /**
+     * Consumes the current token and pulls the next relevant token from the tokenizer
+     * into the lookahead.
+     * 
+     * @throws ParserException If the pulled token is indicating an error state
+     */
+    public void nextToken() throws ParserException {
+      int last = lookahead.length - 1;
+      if (last > 0) {
+        System.arraycopy(lookahead, 1, lookahead, 0, last);
+      }
+      lookahead[last] = pullRelevantToken();
+    }
+
+    private Token pullRelevantToken() throws ParserException {
+      while (tokenizer.hasNext()) {
+        Token token = tokenizer.next();
+        
+        if (isRelevantToken(token)) {
+          return token;
+        }
+      }
+
+      return null;
+    }
+  }
 }
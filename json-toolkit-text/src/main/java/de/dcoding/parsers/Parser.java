@@ -16,6 +16,8 @@
 
 package de.dcoding.parsers;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.Iterator;
 
 /**
@@ -40,4 +42,42 @@ public abstract class Parser<T> {
    * @throws ParserException If parsing malformed data
    */
   public abstract T parse(String input) throws ParserException;
+
+  /**
+   * Parse the characters of the given reader into an object defined by concrete implementation of class.
+   * The default implementation reads the complete input into a string and passes it to {@link #parse(String)}.
+   * Implementations capable of consuming the input incrementally should override this method.
+   * 
+   * @since 1.1
+   * @param input The reader providing the input that will be parsed
+   * @return The parsed object
+   * @throws IOException If reading from the reader fails
+   * @throws ParserException If parsing malformed data
+   */
+  public T parse(Reader input) throws IOException, ParserException {
+    if (input == null) {
+      return parse((String)null);
+    }
+
+    return parse(read(input));
+  }
+
+  /**
+   * Reads the complete input of the specified reader into a string.
+   * 
+   * @param input The reader providing the input
+   * @return The input
+   * @throws IOException If reading from the reader fails
+   */
+  static String read(Reader input) throws IOException {
+    StringBuilder builder = new StringBuilder();
+    char[] chunk = new char[8192];
+    int count;
+
+    while ((count = input.read(chunk)) >= 0) {
+      builder.append(chunk, 0, count);
+    }
+
+    return builder.toString();
+  }
 }
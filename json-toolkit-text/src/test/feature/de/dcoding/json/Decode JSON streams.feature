@@ -0,0 +1,218 @@
+#
+# Copyright (C) 2022 d-coding GmbH
+# 
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+# 
+#      http://www.apache.org/licenses/LICENSE-2.0
+# 
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+# 
+
+Feature: Decode JSON streams
+
+  Scenario: Parse an object from a reader
+    Given the String "{"foo":"bar","fu":[1, 2]}"
+    When we parse it from a reader
+    Then we expect a JSONObject
+    And we expect 2 members
+    And we expect the member "foo" is a JSONString
+    And we expect the member "fu" is a JSONArray
+
+  Scenario: Parse a whitespace reader
+    Given the String "  "
+    When we parse it from a reader
+    Then we expect a null
+
+  Scenario: Parse tokens spanning several chunks of a reader
+    Given a JSON array of 100 strings with 1000 characters each
+    When we parse it from a reader
+    Then we expect a JSONArray
+    And we expect 100 elements
+
+  Scenario: Parse an invalid reader
+    Given we expect an exception
+    And the String "[1, 2"
+    When we parse it from a reader
+    Then we expect the exception to be of type ParserException
+
+  Scenario Outline: Decode an object from encoded bytes
+    Given the String "{"foo":"bär"}"
+    When we decode it from <encoding> bytes
+    Then we expect a JSONObject
+    And we expect the member "foo" is a JSONString
+
+    Examples:
+    | encoding |
+    | UTF-8    |
+    | UTF-16BE |
+    | UTF-16LE |
+    | UTF-32BE |
+    | UTF-32LE |
+
+  Scenario Outline: Decode a number from encoded bytes
+    Given the String "7"
+    When we decode it from <encoding> bytes
+    Then we expect a JSONNumber
+
+    Examples:
+    | encoding |
+    | UTF-8    |
+    | UTF-16BE |
+    | UTF-16LE |
+    | UTF-32BE |
+    | UTF-32LE |
+
+  Scenario Outline: Decode an array from encoded bytes with byte order mark
+    Given the String "["foo"]"
+    When we decode it from <encoding> bytes with byte order mark
+    Then we expect a JSONArray
+    And we expect 1 elements
+
+    Examples:
+    | encoding |
+    | UTF-8    |
+    | UTF-16BE |
+    | UTF-16LE |
+    | UTF-32BE |
+    | UTF-32LE |
+
+  Scenario: Decode an array from a byte buffer
+    Given the String "[true, false, null]"
+    When we decode it from a byte buffer
+    Then we expect a JSONArray
+    And we expect 3 elements
+
+  Scenario: Parse UTF-8 bytes
+    Given the String "{"foo":"bär €𝄞", "fu":[1.5, true, null]}"
+    When we parse it as UTF-8 bytes
+    Then we expect a JSONObject
+    And we expect 2 members
+    And we expect the member "foo" is the string "bär €𝄞"
+    And we expect the member "fu" is a JSONArray
+
+  Scenario: Parse UTF-8 bytes with byte order mark
+    Given the bytes "EF BB BF 5B 31 5D"
+    When we parse the bytes
+    Then we expect a JSONArray
+    And we expect 1 elements
+
+  Scenario Outline: Parse malformed UTF-8 bytes
+    Given we expect an exception
+    And the bytes <bytes>
+    When we parse the bytes
+    Then we expect the exception to be of type ParserException
+
+    Examples:
+    | bytes               |
+    | "22 C3 28 22"       |
+    | "22 C0 AF 22"       |
+    | "22 ED A0 80 22"    |
+    | "22 F4 90 80 80 22" |
+    | "22 E2 82 22"       |
+    | "22 FF 22"          |
+
+  Scenario: Decode a file
+    Given the String "{"foo":"bär", "fu":[1, 2, 3]}"
+    When we decode it from a file
+    Then we expect a JSONObject
+    And we expect 2 members
+    And we expect the member "foo" is the string "bär"
+
+  Scenario: Decode an empty file
+    Given the String ""
+    When we decode it from a file
+    Then we expect a null
+
+  Scenario: Parse a file mapped in several windows
+    Given the String "{"alice":"bob", "charlie":["david", 12345.678e-9, true], "eve":"𝄞𝄞𝄞𝄞"}"
+    When we parse it from a file mapped in windows of 4 bytes
+    Then we expect a JSONObject
+    And we expect 3 members
+    And we expect the member "charlie" is a JSONArray
+    And we expect the member "eve" is the string "𝄞𝄞𝄞𝄞"
+
+  Scenario Outline: Decode an array of records in parallel
+    Given a JSON array of <count> records
+    When we decode it in parallel with <threads> threads
+    Then we expect a JSONArray
+    And we expect <count> elements
+    And we expect it to be encoded like the eagerly parsed value
+
+    Examples:
+    | count | threads |
+    | 1     | 4       |
+    | 3     | 8       |
+    | 1000  | 1       |
+    | 1000  | 4       |
+
+  Scenario Outline: Decode UTF-8 bytes of an array of records in parallel
+    Given a JSON array of <count> records
+    When we decode its UTF-8 bytes in parallel with <threads> threads
+    Then we expect a JSONArray
+    And we expect <count> elements
+    And we expect it to be encoded like the eagerly parsed value
+
+    Examples:
+    | count | threads |
+    | 3     | 8       |
+    | 1000  | 4       |
+
+  Scenario: Divide generated arrays of UTF-8 bytes by their structural index
+    Then we expect 20000 generated arrays with seed 3 to be divided by the structural index like by a character scan
+
+  Scenario: Decode strings with unpaired surrogates in parallel
+    Given a JSON array of 100 strings with an unpaired surrogate
+    When we decode it in parallel with 4 threads
+    Then we expect 100 elements
+    And we expect it to be encoded like the eagerly parsed value
+
+  Scenario Outline: Decode other values in parallel
+    Given the String "<input>"
+    When we decode it in parallel with 4 threads
+    Then we expect it to be encoded like the eagerly parsed value
+
+    Examples:
+    | input                          |
+    | []                             |
+    | {"foo":[1, 2, 3]}              |
+    | "text"                         |
+    | [[1, 2], {"a":[3]}, "]", "\\""] |
+
+  Scenario Outline: Decode malformed arrays in parallel
+    Given we expect an exception
+    And the String "<input>"
+    When we decode it in parallel with 4 threads
+    Then we expect the exception to be of type ParserException
+
+    Examples:
+    | input            |
+    | [1, 2            |
+    | [1, 2] 3         |
+    | [1 2, 3]         |
+    | [1, , 3]         |
+    | [{"a":1], 2}     |
+    | [1, {"a":tru}]   |
+
+  Scenario Outline: Decode malformed UTF-8 bytes in parallel
+    Given we expect an exception
+    And the String "<input>"
+    When we decode its UTF-8 bytes in parallel with 4 threads
+    Then we expect the exception to be of type ParserException
+
+    Examples:
+    | input            |
+    | [1, 2            |
+    | [1, "2]          |
+    | [1, 2] 3         |
+    | [{"a":1], 2}     |
+
+  Scenario: Decode with the default parser in several threads
+    Given a JSON array of 50 records
+    When we decode it with the default parser in 8 threads 200 times each
+    Then we expect "3200 consistent results"
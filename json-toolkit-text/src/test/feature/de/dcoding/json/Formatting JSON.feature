@@ -583,3 +583,129 @@ Feature: Formatting JSON
     When we parse it
     And we convert it to a formatted String
     Then we expect "{"alice":"bob"}"
+
+  Scenario: Frozen settings cannot be changed
+    Given we expect an exception
+    And the String "{"alice":["bob"]}"
+    And we add space after name value separator
+    And we add newline after array begin
+    When we parse it
+    And we convert it to a formatted String with frozen settings
+    Then we expect the exception to be of type UnsupportedOperationException
+    And we expect
+      """
+      {"alice": [
+          "bob"]}
+      """
+
+  Scenario: Share a formatter between several threads
+    Given a JSON array of 50 records
+    And we add newline after object begin
+    And we add newline before object end
+    And we add newline after member separator
+    And we set indention to 4 spaces
+    When we parse it
+    And we convert it to a formatted String in 8 threads 200 times each
+    Then we expect "3200 consistent results"
+
+  Scenario Outline: Write formatted text into a sink
+    Given the String "{"alice":{"bob":["bär", 1.5, null]},"charlie":{}}"
+    And we add newline after object begin
+    And we add newline before object end
+    And we add newline after member separator
+    And we add space after name value separator
+    And we add space after value separator
+    And we set indention to 2 spaces
+    When we parse it
+    And we write it formatted to <sink>
+    Then we expect
+      """
+      {
+        "alice": {
+          "bob": ["bär", 1.5, null]
+        },
+        "charlie": {
+        }
+      }
+      """
+
+    Examples:
+    | sink             |
+    | a writer         |
+    | an output stream |
+
+  Scenario Outline: Write a null value into a sink
+    Given the String ""
+    When we parse it
+    And we write it formatted to <sink>
+    Then we expect ""
+
+    Examples:
+    | sink             |
+    | a writer         |
+    | an output stream |
+
+  Scenario: Deeply nested arrays with indention
+    Given the String "[[[[[[[[[[[[[[[[[[[[]]]]]]]]]]]]]]]]]]]]"
+    And we add newline after array begin
+    And we add newline before array end
+    And we set indention to 1 spaces
+    When we parse it
+    And we convert it to a formatted String
+    Then we expect
+      """
+      [
+       [
+        [
+         [
+          [
+           [
+            [
+             [
+              [
+               [
+                [
+                 [
+                  [
+                   [
+                    [
+                     [
+                      [
+                       [
+                        [
+                         [
+                         ]
+                        ]
+                       ]
+                      ]
+                     ]
+                    ]
+                   ]
+                  ]
+                 ]
+                ]
+               ]
+              ]
+             ]
+            ]
+           ]
+          ]
+         ]
+        ]
+       ]
+      ]
+      """
+
+  Scenario: Change the settings of a formatter between conversions
+    Given the String "{"alice":["bob"]}"
+    And we add newline after object begin
+    And we add newline after array begin
+    And we set indention to 2 spaces
+    When we parse it
+    And we convert it to a formatted String again with indention of 4 spaces
+    Then we expect
+      """
+      {
+          "alice":[
+              "bob"]}
+      """
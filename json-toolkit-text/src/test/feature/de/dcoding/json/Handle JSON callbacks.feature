@@ -0,0 +1,48 @@
+#
+# Copyright (C) 2022 d-coding GmbH
+# 
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+# 
+#      http://www.apache.org/licenses/LICENSE-2.0
+# 
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+# 
+
+Feature: Handle JSON callbacks
+
+  Scenario: Parse an object with a handler
+    Given the String "{"foo":"bar","fu":[1, -2.5e3, true, false, null],"empty":{},"none":[]}"
+    When we parse it with a handler
+    Then we expect "startObject key:foo stringValue:bar key:fu startArray numberValue:1 numberValue:-2.5e3 booleanValue:true booleanValue:false nullValue endArray key:empty startObject endObject key:none startArray endArray endObject"
+
+  Scenario: Parse escaped strings with a handler
+    Given the String "{"f\u006Fo":"a\/b\u0021"}"
+    When we parse it with a handler
+    Then we expect "startObject key:foo stringValue:a/b! endObject"
+
+  Scenario: Parse a single value with a handler from a reader
+    Given the String " "bar" "
+    When we parse it with a handler from a reader
+    Then we expect "stringValue:bar"
+
+  Scenario: Parse a whitespace text with a handler
+    Given the String "  "
+    When we parse it with a handler
+    Then we expect ""
+
+  Scenario: Parse an invalid text with a handler
+    Given we expect an exception
+    And the String "{"foo":[1, 2}"
+    When we parse it with a handler
+    Then we expect the exception to be of type ParserException
+
+  Scenario: Decode values while parsing with a handler
+    Given the String "{"[1, [2, 3]]": 4, "[[5], {}]": {"[]": 6}}"
+    When we parse it with a handler decoding the member names
+    Then we expect "[1,[2,3]]=4 [[5],{}][]=6"
@@ -51,6 +51,21 @@ Feature: Parse JSON
     When we parse it
     Then we expect a JSONString
   
+  Scenario Outline: Parse a string with several escape sequences
+    Given the String "<text>"
+    When we parse it
+    Then we expect a JSONString
+    And we expect the string of the characters "<characters>"
+
+    Examples:
+    | text                        | characters                    |
+    | "a\\\\nb"                   | 61 5C 6E 62                   |
+    | "\\\\\\\\\\u0041"           | 5C 5C 41                      |
+    | "\\"\\\\\\/\\b\\f\\n\\r\\t" | 22 5C 2F 8 C A D 9            |
+    | "x\\uD83D\\uDE00y"          | 78 D83D DE00 79               |
+    | "\\u00e4\\u00C4"            | E4 C4                         |
+    | "no escapes"                | 6E 6F 20 65 73 63 61 70 65 73 |
+
   Scenario Outline: Parse a string with escaped character
     Given a String containing the escaped character <character>
     When we parse it
@@ -104,6 +119,75 @@ Feature: Parse JSON
     | "3.1e+3"  | Floating Point |
     | "-0.3E-4" | Floating Point |
 
+  Scenario Outline: Access parsed numbers beyond the range of Java types
+    Given the String "<input>"
+    When we parse it
+    Then we expect a JSONNumber
+    And we expect access as <type> to be not null
+    And we expect the big integer value <big integer>
+    And we expect the big decimal value <input>
+
+    Examples:
+    | input                           | type           | big integer                     |
+    | 9223372036854775807             | Integer        | 9223372036854775807             |
+    | -9223372036854775808            | Integer        | -9223372036854775808            |
+    | 9223372036854775808             | Floating Point | 9223372036854775808             |
+    | -123456789012345678901234567890 | Floating Point | -123456789012345678901234567890 |
+    | 0.1                             | Floating Point | null                            |
+    | 1e400                           | Floating Point | null                            |
+    | 1.234567890123456789012345e-5   | Floating Point | null                            |
+
+  Scenario Outline: Convert parsed numbers to the nearest double
+    Given the String "<input>"
+    When we parse it
+    Then we expect a JSONNumber
+    And we expect the floating point value to be the nearest double
+
+    Examples:
+    | input                                                   |
+    | 0.1                                                     |
+    | -0.0                                                    |
+    | 0e-5                                                    |
+    | 3.141592653589793                                       |
+    | 9007199254740993.0                                      |
+    | 9223372036854775808                                     |
+    | 1e23                                                    |
+    | 7.2057594037927933e16                                   |
+    | 1.00000000000000011102230246251565404236316680908203125 |
+    | 2.2250738585072011e-308                                 |
+    | 2.2250738585072014E-308                                 |
+    | 4.9e-324                                                |
+    | 2.4703282292062327e-324                                 |
+    | 2.4703282292062328e-324                                 |
+    | 1.7976931348623157e308                                  |
+    | 1.7976931348623159e308                                  |
+    | 1e-400                                                  |
+    | -1e400                                                  |
+    | 123456789012345678901234567890.5                        |
+
+  Scenario: Convert random numbers to the nearest double
+    Then we expect 200000 random numbers with seed 42 to be converted to the nearest double
+
+  Scenario: Convert random significands and exponents like Double.parseDouble
+    Then we expect 250000 random significands and exponents with seed 7 to be converted like Double.parseDouble
+
+  Scenario Outline: Create invalid numbers
+    Given we expect an exception
+    And we create the JSON number <value>
+    Then we expect the exception to be of type IllegalArgumentException
+
+    Examples:
+    | value |
+    | +5    |
+    | 01    |
+    | 1.    |
+    | .5    |
+    | 1e    |
+    | 1e+   |
+    | -     |
+    | NaN   |
+    | 0x10  |
+
   Scenario: Parse an empty object
     Given the String "{}"
     When we parse it
@@ -181,12 +265,133 @@ Feature: Parse JSON
     And we expect 1 elements
     And we expect the value 1 is a JSONObject
 
+  Scenario: Parse a large array
+    Given a JSON array of 200000 numbers
+    When we parse it
+    Then we expect a JSONArray
+    And we expect 200000 elements
+
+  Scenario: Parse deeply nested arrays
+    Given 100000 nested arrays
+    When we parse it with a maximum depth of 100000
+    Then we expect a JSONArray
+    And we expect 1 elements
+
+  Scenario: Share the member names of repeated records
+    Given the String "[{"id":1,"name":"a"},{"id":2,"name":"b"},{"id":3,"n\u0061me":"c"}]"
+    When we parse it
+    Then we expect the elements to share the instances of their member names
+    And we expect the elements to not share the instances of the member "name" values
+
+  Scenario: Parse repeated records without caching member names
+    Given the String "[{"id":1,"name":"a"},{"id":2,"name":"b"}]"
+    When we parse it without caching keys
+    Then we expect the elements to not share the instances of their member names
+
+  Scenario: Share repeated short string values
+    Given the String "[{"state":"open"},{"state":"open"},{"state":"op\u0065n"}]"
+    When we parse it caching string values
+    Then we expect the elements to share the instances of the member "state" values
+
+  Scenario Outline: Parse lazily
+    Given the String "<input>"
+    When we parse it lazily
+    Then we expect it to be encoded like the eagerly parsed value
+
+    Examples:
+    | input                                                                        |
+    | {}                                                                           |
+    | [ ]                                                                          |
+    | "text"                                                                       |
+    | -1.5e3                                                                       |
+    | {"a" : [1, {"b":null}, [true, false]], "c":{"d":"e\\"f"}, "g":{}, "h":[]}  |
+    | [[[["deep"]]], {"x":-0.25}, "a,b]", "c}d", 12]                               |
+    | {"n\\u0061me":"first", "name":"second"}                                    |
+
+  Scenario: Access members of a lazily parsed object
+    Given the String "{"skipped":[{"a":[1,2,{"b":"}"}]}], "foo":{"bar":"baz"}, "list":[1, "two"]}"
+    When we parse it lazily
+    Then we expect a JSONObject
+    And we expect 3 members
+    And we expect the member "foo" is a JSONObject
+    And we expect the member "list" is a JSONArray
+
+  Scenario Outline: Parse malformed structures lazily
+    Given we expect an exception
+    And the String "<input>"
+    When we parse it lazily
+    Then we expect the exception to be of type ParserException
+
+    Examples:
+    | input            |
+    | {"a":[1, 2}      |
+    | ["open]          |
+    | [[1]             |
+    | [1] 2            |
+    | tru              |
+    | 01               |
+
+  Scenario Outline: Access malformed values of a lazily parsed value
+    Given we expect an exception
+    And the String "<input>"
+    When we parse it lazily
+    And we access all of its values
+    Then we expect the exception to be of type IllegalStateException
+
+    Examples:
+    | input            |
+    | [1, tru]         |
+    | [1 2]            |
+    | [1,]             |
+    | {"a" 1}          |
+    | {"a":1,}         |
+    | {"a":[01]}       |
+    | [{"a":{"b":-}}]  |
+    | {a:1}            |
+
+  Scenario: Access a malformed escape sequence of a lazily parsed value
+    Given we expect an exception
+    And the String "["\x"]"
+    When we parse it lazily
+    And we access all of its values
+    Then we expect the exception to be of type IllegalStateException
+
+  Scenario: Parse arrays nested deeper than the default maximum depth
+    Given we expect an exception
+    And 513 nested arrays
+    When we parse it
+    Then we expect the exception to be of type ParserException
+
+  Scenario: Parse arrays nested deeper than a configured maximum depth
+    Given we expect an exception
+    And 3 nested arrays
+    When we parse it with a maximum depth of 2
+    Then we expect the exception to be of type ParserException
+
   Scenario: Parse an invalid number
     Given we expect an exception
     And the String "23.0.0"
     When we parse it
     Then we expect the exception to be of type ParserException
 
+  Scenario: Parse an unterminated string
+    Given we expect an exception
+    And the String ""foo"
+    When we parse it
+    Then we expect the exception to be of type ParserException
+
+  Scenario: Parse a string with an invalid escape sequence
+    Given we expect an exception
+    And the String ""\x41""
+    When we parse it
+    Then we expect the exception to be of type ParserException
+
+  Scenario: Parse a value followed by another value
+    Given we expect an exception
+    And the String "[23] 42"
+    When we parse it
+    Then we expect the exception to be of type ParserException
+
   Scenario: Parse an invalid array
     Given we expect an exception
     And the String "[,23]"
@@ -237,3 +442,39 @@ Feature: Parse JSON
     | "TRUE"   |
     | "False"  |
     | "FALSE"  |
+
+  Scenario: Parse with a subclass reading the lookahead field
+    Given the String "[1, {"a": true}]"
+    When we count its tokens with a parser reading the lookahead field
+    Then we expect "9 tokens, 8 followed by another"
+
+  Scenario: Parse with a subclass reading the lookahead field while another thread parses
+    Given the String "[1, {"a": true}]"
+    When we count its tokens with a parser reading the lookahead field while another thread parses "[true, false]"
+    Then we expect "9 tokens, 8 followed by another"
+
+  Scenario: Parse a reader with a subclass only providing a String tokenizer
+    Given the String "[1, {"a": true}]"
+    When we count its tokens with a parser reading the lookahead field from a reader
+    Then we expect "9 tokens, 8 followed by another"
+
+  Scenario Outline: Parse with a subclass filtering the relevant tokens
+    Given the String "<text>"
+    When we parse it with a subclass filtering the relevant tokens
+    Then we expect "<result>"
+
+    Examples:
+    | text              | result                                |
+    | [1, {"a": true}]  | [1,{"a":true}] from 9 relevant tokens |
+    | [1, null]         | error: Null is not supported          |
+    | null              | error: Null is not supported          |
+
+  Scenario Outline: Parse with a subclass consuming the tokens
+    Given the String "<text>"
+    When we parse it with a subclass counting the consumed tokens
+    Then we expect "<result>"
+
+    Examples:
+    | text              | result                                 |
+    | [1, {"a": true}]  | [1,{"a":true}] after 9 consumed tokens |
+    | "text"            | "text" after 1 consumed tokens         |
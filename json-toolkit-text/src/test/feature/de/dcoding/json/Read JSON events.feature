@@ -0,0 +1,216 @@
+#
+# Copyright (C) 2022 d-coding GmbH
+# 
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+# 
+#      http://www.apache.org/licenses/LICENSE-2.0
+# 
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+# 
+
+Feature: Read JSON events
+
+  Scenario: Read the events of an object
+    Given the String "{"foo":"bär","fu":[1, 2.5, true, false, null], "empty":{}}"
+    When we read the events
+    Then we expect "START_OBJECT FIELD_NAME:foo VALUE_STRING:bär FIELD_NAME:fu START_ARRAY VALUE_NUMBER:1 VALUE_NUMBER:2.5 VALUE_TRUE:true VALUE_FALSE:false VALUE_NULL END_ARRAY FIELD_NAME:empty START_OBJECT END_OBJECT END_OBJECT"
+
+  Scenario: Read the events of a single value
+    Given the String " 42 "
+    When we read the events
+    Then we expect "VALUE_NUMBER:42"
+
+  Scenario: Read the events of a whitespace text
+    Given the String "  "
+    When we read the events
+    Then we expect ""
+
+  Scenario: Skip the children of a member
+    Given the String "{"skipped":{"foo":[1, {"bar":2}]},"kept":[]}"
+    When we read the events skipping the children of member "skipped"
+    Then we expect "START_OBJECT FIELD_NAME:skipped START_OBJECT END_OBJECT FIELD_NAME:kept START_ARRAY END_ARRAY END_OBJECT"
+
+  Scenario: Read a single member with an event reader
+    Given the String "{"foo":[1, 2, {"bar":3}],"fu":{"bar":"baz"},"fa":true}"
+    When we read the member "fu" with an event reader
+    Then we expect a JSONObject
+    And we expect the member "bar" is the string "baz"
+
+  Scenario: Read a large array with an event reader
+    Given a JSON array of 200000 numbers
+    When we read the member "foo" with an event reader
+    Then we expect a null
+
+  Scenario Outline: Read the events of an invalid text
+    Given we expect an exception
+    And the String "<text>"
+    When we read the events
+    Then we expect the exception to be of type ParserException
+
+    Examples:
+    | text           |
+    | [1, 2          |
+    | [1 2]          |
+    | {"foo" 1}      |
+    | {"foo":1,}     |
+    | {"foo":1]      |
+    | [1] [2]        |
+    | [1, @]         |
+    | {1:2}          |
+
+  Scenario: Read the token kinds of a text
+    Given the String "{"foo": [-1.5, true, false, null]}"
+    When we read the token kinds
+    Then we expect "1@0-1 7@1-6:"foo" 5@6-7 3@8-9 8@9-13:-1.5 6@13-14 9@15-19 6@19-20 10@21-26 6@26-27 11@28-32 4@32-33 2@33-34 0@34-34"
+
+  Scenario: Read the token kinds of UTF-8 bytes
+    Given the String "["bär\n", 7]"
+    When we read the token kinds of the UTF-8 bytes
+    Then we expect "3@0-1 7@1-9:"bär\n" 6@9-10 8@11-12:7 4@12-13 0@13-13"
+
+  Scenario: Read the token kinds of an invalid text
+    Given the String "[1, @]"
+    When we read the token kinds
+    Then we expect "3@0-1 8@1-2:1 6@2-3 13@4-4"
+
+  Scenario: Read the tokens of a text
+    Given the String "{"foo": 1}"
+    When we read the tokens
+    Then we expect "JSONBeginObjectToken@0 JSONStringToken@1 JSONNameSeparatorToken@6 JSONWhitespaceToken@7 JSONNumberToken@8 JSONEndObjectToken@9"
+
+  Scenario: Parse an object from a token iterator
+    Given the String "{"foo":"bar","fu":[1, 2]}"
+    When we parse it from a token iterator
+    Then we expect a JSONObject
+    And we expect the member "foo" is the string "bar"
+    And we expect the member "fu" is a JSONArray
+
+  Scenario: Parse an invalid text from a token iterator
+    Given we expect an exception
+    And the String "{"foo":"bar",}"
+    When we parse it from a token iterator
+    Then we expect the exception to be of type ParserException
+
+  Scenario: Read JSON lines
+    Given the lines
+      """
+      {"foo": "bar"}
+      [1, 2]
+
+      {"foo": 1,}
+      "text"
+        42  
+      """
+    When we read the JSON lines
+    Then we expect "1:{"foo":"bar"} 2:[1,2] 4:error 5:"text" 6:42"
+
+  Scenario: Stream JSON lines
+    Given the lines
+      """
+      {"foo": "bar"}
+      [1, 2
+      null
+      """
+    When we stream the JSON lines
+    Then we expect "{"foo":"bar"} null"
+
+  Scenario Outline: Read JSON lines in parallel
+    Given <count> JSON lines with every 7th line malformed
+    When we read the JSON lines with <threads> threads
+    Then we expect <count> lines with every 7th line reported as error
+
+    Examples:
+    | count | threads |
+    | 3     | 4       |
+    | 10000 | 1       |
+    | 10000 | 4       |
+
+  Scenario Outline: Read concatenated documents
+    Given the String "<text>"
+    When we read the documents
+    Then we expect "<documents>"
+
+    Examples:
+    | text                        | documents                              |
+    | {"a":1}{"b":[2]}[3]"x"      | {"a":1}@7 {"b":[2]}@16 [3]@19 "x"@22   |
+    | 1 2  true null              | 1@1 2@3 true@9 null@14                 |
+    |                             |                                        |
+
+  Scenario: Read concatenated documents of UTF-8 bytes
+    Given the String "{"ä":1} ["ö"]"
+    When we read the documents of the UTF-8 bytes
+    Then we expect "{"ä":1}@8 ["ö"]@15"
+
+  Scenario Outline: Read invalid concatenated documents
+    Given we expect an exception
+    And the String "<text>"
+    When we read the documents
+    Then we expect the exception to be of type ParserException
+
+    Examples:
+    | text            |
+    | {"a":1}{"b"}    |
+    | [1, 2]]         |
+    | {"a":1} @       |
+    | [1, 2           |
+
+  Scenario: Read the first document of a connection
+    Given the String " {"foo":[1, {"bar":2}]} "
+    When we read the first document of a connection
+    Then we expect a JSONObject
+    And we expect the member "foo" is a JSONArray
+
+  Scenario: Read a long stream of documents
+    When we count the documents of a stream of 200000 objects
+    Then we expect "200000"
+
+  Scenario Outline: Skip the children of a member without validation
+    Given the String "{"skipped":{"foo":[1, {"bar":"]}\"{"}], "fu":"\\"},"kept":[]}"
+    When we read the events skipping the children of member "skipped" without validation from <source>
+    Then we expect "START_OBJECT FIELD_NAME:skipped START_OBJECT END_OBJECT FIELD_NAME:kept START_ARRAY END_ARRAY END_OBJECT"
+
+    Examples:
+    | source           |
+    | a string         |
+    | a reader         |
+    | UTF-8 bytes      |
+    | a token iterator |
+
+  Scenario Outline: Skip a large array
+    Given a JSON array of 2000 records
+    When we skip the value <validation> from <source>
+    Then we expect "END_ARRAY@177557"
+
+    Examples:
+    | validation         | source           |
+    | with validation    | a reader         |
+    | without validation | a string         |
+    | without validation | a reader         |
+    | without validation | UTF-8 bytes      |
+    | without validation | a token iterator |
+
+  Scenario Outline: Skip unbalanced values without validation
+    Given we expect an exception
+    And the String "<text>"
+    When we skip the value without validation from <source>
+    Then we expect the exception to be of type ParserException
+
+    Examples:
+    | text             | source           |
+    | [1, [2]          | a reader         |
+    | [1, "]"          | a string         |
+    | {"a":[1}]        | UTF-8 bytes      |
+    | [1, {"a":2]      | UTF-8 bytes      |
+    | [1, 2            | a token iterator |
+
+  Scenario: Skip a value followed by another token without validation
+    Given we expect an exception
+    And the String "[[1], 2] 3"
+    When we skip the value without validation from a reader
+    Then we expect the exception to be of type ParserException
@@ -63,6 +63,9 @@ Feature: Stringify json
     | "U+000A"   | 4      |
     | "U+000D"   | 4      |
     | "U+0009"   | 4      |
+    | "U+0001"   | 8      |
+    | "U+001F"   | 8      |
+    | "U+00E4"   | 3      |
     | "U+0000"   | 8      |
     | "U+0001"   | 8      |
     | "U+0010"   | 8      |
@@ -133,3 +136,52 @@ Feature: Stringify json
     And we add an empty JSON array
     When we convert it to a String
     Then we expect "[[]]"
+
+  Scenario: Stringify control characters
+    Given the String "["a\u0001b\u001f", "\"quoted\" \\ text\n"]"
+    When we parse it
+    And we convert it to a String
+    Then we expect "["a\u0001b\u001F","\"quoted\" \\ text\n"]"
+
+  Scenario Outline: Stringify escaped member names
+    Given the String "{"a\"b\\c\n\u0002": {"日本": "x"}}"
+    When we parse it
+    And we <conversion>
+    Then we expect "{"a\"b\\c\n\u0002":{"日本":"x"}}"
+
+    Examples:
+    | conversion                             |
+    | convert it to a String                 |
+    | convert it to a formatted String       |
+    | write it formatted to a writer         |
+    | write it formatted to an output stream |
+    | encode it as UTF-8 bytes               |
+
+  Scenario Outline: Encode values as UTF-8 bytes
+    Given the String "<text>"
+    When we parse it
+    And we encode it as UTF-8 bytes
+    Then we expect "<expected>"
+
+    Examples:
+    | text                          | expected                     |
+    | ["plain", "bär", "日本"]       | ["plain","bär","日本"]        |
+    | {"a":[1.5, true, null, {}]}   | {"a":[1.5,true,null,{}]}     |
+
+  Scenario: Encode escaped characters as UTF-8 bytes
+    Given the String "["\"\\\/", "\b\f\n\r\t", "\u0001\u001f"]"
+    When we parse it
+    And we encode it as UTF-8 bytes
+    Then we expect "["\"\\/","\b\f\n\r\t","\u0001\u001F"]"
+
+  Scenario: Encode surrogates as UTF-8 bytes
+    Given the String "["\ud83d\ude00", "\ud83d", "x"]"
+    When we parse it
+    And we encode it as UTF-8 bytes
+    Then we expect "["😀","?","x"]"
+
+  Scenario: Reuse an encoder for UTF-8 bytes
+    Given a JSON array of 2000 records
+    When we parse it
+    And we encode it 20 times as UTF-8 bytes with one encoder
+    Then we expect "20 equal results"
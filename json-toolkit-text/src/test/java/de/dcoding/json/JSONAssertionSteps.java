@@ -16,7 +16,11 @@
 
 package de.dcoding.json;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -24,6 +28,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import de.dcoding.json.parsers.JSONLLParser;
+
 import io.cucumber.java.en.Then;
 
 /**
@@ -32,6 +38,9 @@ import io.cucumber.java.en.Then;
  * @since  1.0
  */
 public class JSONAssertionSteps {
+  // 10^19, the smallest significand with 20 digits
+  private static final long TWENTY_DIGITS = Long.parseUnsignedLong("10000000000000000000");
+
   @Then("^we expect a null$")
   public void weExpectANull() throws Throwable {
     JSONValue jsonValue = JSONSteps.getJSONValue();
@@ -113,6 +122,15 @@ public class JSONAssertionSteps {
     assertTrue("Not a JSONString", member instanceof JSONString);
   }
 
+  @Then("^we expect the member \"([^\"]*)\" is the string \"(.*)\"$")
+  public void weExpectTheMemberIsTheString(String name, String expected) throws Throwable {
+    JSONValue jsonValue = JSONSteps.getJSONValue();
+    JSONObject casted = (JSONObject) jsonValue;
+    JSONString member = (JSONString) casted.get(name);
+
+    assertEquals("Unexpected string value", expected, member.getValue());
+  }
+
   @Then("^we expect the member \"([^\"]*)\" is a JSONObject$")
   public void weExpectTheMemberIsAJSONObject(String name) throws Throwable {
     JSONValue jsonValue = JSONSteps.getJSONValue();
@@ -167,6 +185,19 @@ public class JSONAssertionSteps {
     assertTrue("Not a JSONArray", value instanceof JSONArray);
   }
 
+  @Then("^we expect the string of the characters \"([0-9A-F ]*)\"$")
+  public void weExpectTheStringOfTheCharacters(String value) throws Throwable {
+    JSONValue jsonValue = JSONSteps.getJSONValue();
+    JSONString casted = (JSONString) jsonValue;
+
+    StringBuilder builder = new StringBuilder();
+    for (String hexValue : value.trim().split(" +")) {
+      builder.append((char)Integer.parseInt(hexValue, 16));
+    }
+
+    assertEquals(builder.toString(), casted.getValue());
+  }
+
   @Then("^it should have the length of (\\d+)$")
   public void havingTheLengthOf(int value) throws Throwable {
     JSONValue jsonValue = JSONSteps.getJSONValue();
@@ -205,6 +236,23 @@ public class JSONAssertionSteps {
     assertEquals("Wrong type of exception was thrown", expectedException, exceptionName);
   }
 
+  @Then("^we expect the big integer value (.+)$")
+  public void weExpectTheBigIntegerValue(String value) throws Throwable {
+    JSONNumber jsonNumber = (JSONNumber)JSONSteps.getJSONValue();
+
+    if (value.equals("null")) {
+      assertNull(jsonNumber.getBigInteger());
+    } else {
+      assertEquals(new BigInteger(value), jsonNumber.getBigInteger());
+    }
+  }
+
+  @Then("^we expect the big decimal value (.+)$")
+  public void weExpectTheBigDecimalValue(String value) throws Throwable {
+    JSONNumber jsonNumber = (JSONNumber)JSONSteps.getJSONValue();
+    assertEquals(new BigDecimal(value), jsonNumber.getBigDecimal());
+  }
+
   @Then("^we expect access as (Integer|Floating Point) to be not null$")
   public void weExpectAccessAsTypeToBeNotNull(String numberType) throws Throwable {
     JSONValue jsonValue = JSONSteps.getJSONValue();
@@ -232,4 +280,169 @@ public class JSONAssertionSteps {
         break;
     }
   }
+
+  @Then("^we expect the floating point value to be the nearest double$")
+  public void weExpectTheFloatingPointValueToBeTheNearestDouble() throws Throwable {
+    JSONNumber jsonNumber = (JSONNumber)JSONSteps.getJSONValue();
+    assertNearestDouble(jsonNumber.getValue(), jsonNumber.getFloatingPointValue());
+  }
+
+  @Then("^we expect (\\d+) random numbers with seed (\\d+) to be converted to the nearest double$")
+  public void weExpectRandomNumbersToBeConvertedToTheNearestDouble(int count, long seed) throws Throwable {
+    Random random = new Random(seed);
+
+    for (int i = 0; i < count; i++) {
+      String value;
+      switch (i % 4) {
+        case 0:
+          // shortest representation of an arbitrary double
+          double randomDouble = Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL);
+          value = Double.toString(randomDouble).replace('E', 'e');
+          break;
+        case 1:
+          // up to 19 digits with an exponent covering the whole range
+          value = (random.nextLong() >>> (1 + random.nextInt(63))) + "e" + (random.nextInt(700) - 360);
+          break;
+        case 2:
+          // up to 19 digits with a fraction
+          String digits = Long.toString(random.nextLong() >>> (1 + random.nextInt(63)));
+          int point = random.nextInt(digits.length());
+          value = ((point == 0) ? "0" : digits.substring(0, point)) + "." + digits.substring(point);
+          break;
+        default:
+          // close to the halfway point between two adjacent doubles
+          long bits = random.nextLong() & 0x7FEFFFFFFFFFFFFFL;
+          BigDecimal lower = new BigDecimal(Double.longBitsToDouble(bits));
+          BigDecimal upper = new BigDecimal(Double.longBitsToDouble(bits + 1));
+          BigDecimal halfway = lower.add(upper).divide(BigDecimal.valueOf(2));
+          value = halfway.round(new MathContext(17 + random.nextInt(3))).toString().replace("E+", "e");
+          break;
+      }
+
+      assertNearestDouble(value, DoubleParser.parse(value));
+    }
+  }
+
+  @Then("^we expect (\\d+) random significands and exponents with seed (\\d+) to be converted like Double.parseDouble$")
+  public void weExpectRandomSignificandsAndExponentsToBeConvertedLikeDoubleParseDouble(int count, long seed) throws Throwable {
+    Random random = new Random(seed);
+    for (int i = 0; i < count; i++) {
+      String value;
+      switch (i % 5) {
+        case 0:
+          // up to 19 digits with an exponent beyond both ends of the range
+          value = Long.toUnsignedString(Long.remainderUnsigned(random.nextLong(), TWENTY_DIGITS)) + "e" + (random.nextInt(720) - 380);
+          break;
+        case 1:
+          // subnormal results and the transition to zero
+          value = (random.nextLong() >>> (1 + random.nextInt(63))) + "e" + (random.nextInt(50) - 345);
+          break;
+        case 2:
+          // exactly halfway between two doubles and the adjacent significands
+          value = createHalfway(random, random.nextInt(28) - 4, random.nextInt(3) - 1);
+          break;
+        case 3:
+          // at the boundary of 19 digits and of the unsigned range of a long
+          value = createBoundarySignificand(random) + "e" + (random.nextInt(80) - 40);
+          break;
+        default:
+          // close to the halfway point between two subnormal doubles
+          long bits = 1 + (random.nextLong() & 0x000FFFFFFFFFFFFEL);
+          BigDecimal lower = new BigDecimal(Double.longBitsToDouble(bits));
+          BigDecimal upper = new BigDecimal(Double.longBitsToDouble(bits + 1));
+          BigDecimal halfway = lower.add(upper).divide(BigDecimal.valueOf(2));
+          value = halfway.round(new MathContext(17 + random.nextInt(3))).toString().replace("E-", "e-");
+          break;
+      }
+
+      assertNearestDouble(value, DoubleParser.parse(value));
+    }
+  }
+
+  /**
+   * Creates a number exactly halfway between two doubles and adds the specified offset to its
+   * significand. An odd w of 54 bits times a power of two is such a number, its decimal significand
+   * is w / 5^exponent for positive exponents and w * 5^-exponent for negative ones.
+   */
+  private static String createHalfway(Random random, int exponent, int offset) {
+    long minimum = 1L << 53;
+    long maximum = (1L << 54) - 1;
+    long significand;
+
+    if (exponent >= 0) {
+      long power = BigInteger.valueOf(5).pow(exponent).longValueExact();
+      long lowest = (minimum + power - 1) / power;
+      long highest = maximum / power;
+      long factor = lowest + (long)(random.nextDouble() * (highest - lowest + 1));
+      if ((factor & 1) == 0) {
+        factor += (factor < highest) ? 1 : -1;
+      }
+      significand = factor;
+    } else {
+      long power = BigInteger.valueOf(5).pow(-exponent).longValueExact();
+      long highest = Math.min(maximum, Long.divideUnsigned(TWENTY_DIGITS, power) - 1);
+      long odd = (minimum + (long)(random.nextDouble() * (highest - minimum))) | 1;
+      significand = odd * power;
+    }
+
+    return Long.toUnsignedString(significand + offset) + "e" + exponent;
+  }
+
+  private static String createBoundarySignificand(Random random) {
+    switch (random.nextInt(5)) {
+      case 0:
+        // any 19 digits
+        return Long.toUnsignedString(Long.remainderUnsigned(random.nextLong(), 9000000000000000000L) + 1000000000000000000L);
+      case 1:
+        // the largest significands of 19 digits
+        return Long.toUnsignedString((TWENTY_DIGITS - 1) - random.nextInt(1000));
+      case 2:
+        // around the sign bit of a long
+        return Long.toUnsignedString(Long.MIN_VALUE + random.nextInt(2001) - 1000);
+      case 3:
+        // 20 digits and more, which exceed the unsigned significand
+        return Long.toUnsignedString(Long.remainderUnsigned(random.nextLong(), 9000000000000000000L) + 1000000000000000000L) + random.nextInt(1000);
+      default:
+        // 19 digits following leading zeros of the fraction
+        return "0.000" + Long.toUnsignedString(Long.remainderUnsigned(random.nextLong(), 9000000000000000000L) + 1000000000000000000L);
+    }
+  }
+
+  private static void assertNearestDouble(String value, double actual) {
+    String assertionErrorMessage = String.format("Nearest double expected for \"%s\"", value);
+    double expected = Double.parseDouble(value);
+    assertEquals(assertionErrorMessage, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+  }
+
+  @Then("^we expect the elements to (share|not share) the instances of their member names$")
+  public void weExpectTheElementsToShareTheInstancesOfTheirMemberNames(String sharing) throws Throwable {
+    JSONArray jsonArray = (JSONArray)JSONSteps.getJSONValue();
+    JSONObject first = jsonArray.getAs(0);
+
+    for (JSONValue element : jsonArray.subList(1, jsonArray.size())) {
+      for (String name : ((JSONObject)element).keySet()) {
+        String firstName = first.keySet().stream().filter(name::equals).findFirst().get();
+        String assertionErrorMessage = String.format("Member name \"%s\" expected to %s the instance", name, sharing);
+        assertEquals(assertionErrorMessage, "share".equals(sharing), firstName == name);
+      }
+    }
+  }
+
+  @Then("^we expect the elements to (share|not share) the instances of the member \"(.*)\" values$")
+  public void weExpectTheElementsToShareTheInstancesOfTheMemberValues(String sharing, String name) throws Throwable {
+    JSONArray jsonArray = (JSONArray)JSONSteps.getJSONValue();
+    String firstValue = ((JSONString)((JSONObject)jsonArray.get(0)).get(name)).getValue();
+
+    for (JSONValue element : jsonArray.subList(1, jsonArray.size())) {
+      String value = ((JSONString)((JSONObject)element).get(name)).getValue();
+      String assertionErrorMessage = String.format("Value \"%s\" expected to %s the instance", value, sharing);
+      assertEquals(assertionErrorMessage, "share".equals(sharing), firstValue == value);
+    }
+  }
+
+  @Then("^we expect it to be encoded like the eagerly parsed value$")
+  public void weExpectItToBeEncodedLikeTheEagerlyParsedValue() throws Throwable {
+    JSONValue expected = new JSONLLParser().parse(JSONSteps.getStringValue());
+    assertEquals(JSON.encode(expected), JSON.encode(JSONSteps.getJSONValue()));
+  }
 }
@@ -0,0 +1,463 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+import de.dcoding.json.parsers.JSONDocumentReader;
+import de.dcoding.json.parsers.JSONEvent;
+import de.dcoding.json.parsers.JSONEventReader;
+import de.dcoding.json.parsers.JSONHandler;
+import de.dcoding.json.parsers.JSONLLParser;
+import de.dcoding.json.parsers.JSONLinesReader;
+import de.dcoding.json.parsers.JSONTokenStream;
+import de.dcoding.json.parsers.JSONTokenizer;
+import de.dcoding.json.parsers.JSONUTF8Tokenizer;
+import de.dcoding.parsers.Token;
+
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+/**
+ * Step definitions for reading JSON text as events or callbacks
+ *
+ * @since  1.1
+ */
+public class JSONEventSteps {
+  @When("^we read the events$")
+  public void weReadTheEvents() throws Throwable {
+    weReadTheEventsSkippingTheChildrenOfMember(null);
+  }
+
+  @When("^we read the events skipping the children of member \"([^\"]*)\"$")
+  public void weReadTheEventsSkippingTheChildrenOfMember(String name) throws Throwable {
+    readEvents(new JSONEventReader(new StringReader(JSONSteps.getStringValue())), name);
+  }
+
+  @When("^we read the events skipping the children of member \"([^\"]*)\" without validation from (a string|a reader|UTF-8 bytes|a token iterator)$")
+  public void weReadTheEventsSkippingTheChildrenWithoutValidation(String name, String source) throws Throwable {
+    JSONEventReader reader = newEventReader(source);
+    reader.setValidatingSkippedChildren(false);
+    readEvents(reader, name);
+  }
+
+  @When("^we skip the value (with|without) validation from (a string|a reader|UTF-8 bytes|a token iterator)$")
+  public void weSkipTheValue(String validation, String source) throws Throwable {
+    JSONEventReader reader = newEventReader(source);
+    reader.setValidatingSkippedChildren(validation.equals("with"));
+    try {
+      reader.next();
+      reader.skipChildren();
+      String skipped = reader.getEvent() + "@" + reader.getPosition();
+      reader.hasNext();
+      JSONSteps.setStringValue(skipped);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  private JSONEventReader newEventReader(String source) {
+    String stringValue = JSONSteps.getStringValue();
+    byte[] bytes = stringValue.getBytes(Charset.forName("UTF-8"));
+
+    switch (source) {
+      case "a string":
+        return new JSONEventReader(stringValue);
+      case "a reader":
+        return new JSONEventReader(new StringReader(stringValue));
+      case "UTF-8 bytes":
+        return new JSONEventReader(ByteBuffer.wrap(bytes));
+      default:
+        // hides the token stream of the tokenizer, so the default skipping of the tokens is used
+        JSONTokenizer tokenizer = new JSONTokenizer(stringValue);
+        return new JSONEventReader(new Iterator<Token>() {
+          @Override
+          public boolean hasNext() {
+            return tokenizer.hasNext();
+          }
+
+          @Override
+          public Token next() {
+            return tokenizer.next();
+          }
+        });
+    }
+  }
+
+  private void readEvents(JSONEventReader reader, String name) throws Throwable {
+    StringBuilder builder = new StringBuilder();
+    try {
+      while (reader.hasNext()) {
+        JSONEvent event = reader.next();
+        appendEvent(builder, reader);
+
+        if ((event == JSONEvent.FIELD_NAME) && reader.getString().equals(name)) {
+          reader.next();
+          appendEvent(builder, reader);
+          reader.skipChildren();
+          appendEvent(builder, reader);
+        }
+      }
+      JSONSteps.setStringValue(builder.toString());
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we read the member \"([^\"]*)\" with an event reader$")
+  public void weReadTheMemberWithAnEventReader(String name) throws Throwable {
+    JSONEventReader reader = new JSONEventReader(JSONSteps.getStringValue());
+    JSONSteps.setJSONValue(null);
+    try {
+      while (reader.hasNext()) {
+        JSONEvent event = reader.next();
+
+        if ((event == JSONEvent.FIELD_NAME) && (reader.getDepth() == 1) && reader.getString().equals(name)) {
+          reader.next();
+          JSONSteps.setJSONValue(reader.readValue());
+        } else if (reader.getDepth() > 1) {
+          reader.skipChildren();
+        }
+      }
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we parse it with a handler( from a reader)?$")
+  public void weParseItWithAHandler(String fromReader) throws Throwable {
+    RecordingHandler handler = new RecordingHandler();
+    String stringValue = JSONSteps.getStringValue();
+    try {
+      if (fromReader != null) {
+        JSON.parse(new StringReader(stringValue), handler);
+      } else {
+        JSON.parse(stringValue, handler);
+      }
+      JSONSteps.setStringValue(handler.builder.toString());
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we parse it with a handler decoding the member names$")
+  public void weParseItWithAHandlerDecodingTheMemberNames() throws Throwable {
+    StringBuilder builder = new StringBuilder();
+    JSON.parse(JSONSteps.getStringValue(), new JSONHandler() {
+      @Override
+      public void key(CharSequence name) {
+        try {
+          // a nested parsing process on the same thread and the same default parser
+          builder.append(JSON.decode(name.toString()));
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      }
+
+      @Override
+      public void numberValue(CharSequence value) {
+        builder.append('=').append(value).append(' ');
+      }
+    });
+    JSONSteps.setStringValue(builder.toString().trim());
+  }
+
+  @When("^we read the token kinds( of the UTF-8 bytes)?$")
+  public void weReadTheTokenKinds(String utf8) throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    JSONTokenStream tokens;
+    if (utf8 != null) {
+      tokens = new JSONUTF8Tokenizer(stringValue.getBytes(Charset.forName("UTF-8")));
+    } else {
+      tokens = new JSONTokenizer(stringValue);
+    }
+
+    StringBuilder builder = new StringBuilder();
+    int kind;
+    do {
+      kind = tokens.nextToken();
+      if (builder.length() > 0) {
+        builder.append(' ');
+      }
+      builder.append(kind).append('@').append(tokens.getTokenStart()).append('-').append(tokens.getTokenEnd());
+      if (tokens.getValueLength() > 0) {
+        builder.append(':').append(tokens.getValueChars(), tokens.getValueOffset(), tokens.getValueLength());
+      }
+    } while ((kind != JSONTokenStream.END_OF_INPUT) && (kind != JSONTokenStream.ERROR));
+
+    JSONSteps.setStringValue(builder.toString());
+  }
+
+  @When("^we read the tokens$")
+  public void weReadTheTokens() throws Throwable {
+    JSONTokenizer tokenizer = new JSONTokenizer(JSONSteps.getStringValue());
+    StringBuilder builder = new StringBuilder();
+
+    while (tokenizer.hasNext()) {
+      Token token = tokenizer.next();
+      if (builder.length() > 0) {
+        builder.append(' ');
+      }
+      builder.append(token.getClass().getSimpleName()).append('@').append(token.at());
+    }
+
+    JSONSteps.setStringValue(builder.toString());
+  }
+
+  @When("^we parse it from a token iterator$")
+  public void weParseItFromATokenIterator() throws Throwable {
+    try {
+      JSONValue jsonValue = new TokenIteratorParser().parseTokens(new JSONTokenizer(JSONSteps.getStringValue()));
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we read the JSON lines(?: with (\\d+) threads)?$")
+  public void weReadTheJSONLines(Integer threads) throws Throwable {
+    StringBuilder builder = new StringBuilder();
+    int parallelism = (threads != null) ? threads : 1;
+
+    try (JSONLinesReader reader = new JSONLinesReader(new StringReader(JSONSteps.getStringValue()), parallelism)) {
+      reader.setErrorHandler((lineNumber, exception) -> append(builder, lineNumber).append(":error"));
+      while (reader.hasNext()) {
+        JSONValue jsonValue = reader.next();
+        append(builder, reader.getLineNumber()).append(':').append(jsonValue);
+      }
+    }
+
+    JSONSteps.setStringValue(builder.toString());
+  }
+
+  @When("^we stream the JSON lines$")
+  public void weStreamTheJSONLines() throws Throwable {
+    try (JSONLinesReader reader = new JSONLinesReader(new StringReader(JSONSteps.getStringValue()))) {
+      JSONSteps.setStringValue(reader.stream().map(JSONValue::toString).collect(Collectors.joining(" ")));
+    }
+  }
+
+  @Then("^we expect (\\d+) lines with every (\\d+)th line reported as error$")
+  public void weExpectLinesWithErrors(int count, int interval) throws Throwable {
+    StringBuilder builder = new StringBuilder();
+
+    for (int i = 1; i <= count; i++) {
+      append(builder, i).append(':');
+      if ((i % interval) == 0) {
+        builder.append("error");
+      } else {
+        builder.append("{\"line\":").append(i).append('}');
+      }
+    }
+
+    assertEquals(builder.toString(), JSONSteps.getStringValue());
+  }
+
+  private static StringBuilder append(StringBuilder builder, int lineNumber) {
+    if (builder.length() > 0) {
+      builder.append(' ');
+    }
+    return builder.append(lineNumber);
+  }
+
+  @When("^we read the documents( of the UTF-8 bytes)?$")
+  public void weReadTheDocuments(String utf8) throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    JSONDocumentReader reader;
+    if (utf8 != null) {
+      reader = new JSONDocumentReader(ByteBuffer.wrap(stringValue.getBytes(Charset.forName("UTF-8"))));
+    } else {
+      reader = new JSONDocumentReader(new StringReader(stringValue));
+    }
+
+    StringBuilder builder = new StringBuilder();
+    try {
+      while (reader.hasNext()) {
+        JSONValue jsonValue = reader.next();
+        if (builder.length() > 0) {
+          builder.append(' ');
+        }
+        builder.append(jsonValue).append('@').append(reader.getPosition());
+      }
+      JSONSteps.setStringValue(builder.toString());
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we read the first document of a connection$")
+  public void weReadTheFirstDocumentOfAConnection() throws Throwable {
+    // fails like a blocking connection if more than the available characters are read
+    StringReader available = new StringReader(JSONSteps.getStringValue());
+    Reader connection = new Reader() {
+      @Override
+      public int read(char[] buffer, int offset, int length) throws IOException {
+        int count = available.read(buffer, offset, length);
+        if (count < 0) {
+          throw new IOException("Blocked on the connection");
+        }
+        return count;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+
+    try (JSONDocumentReader reader = new JSONDocumentReader(connection)) {
+      JSONSteps.setJSONValue(reader.hasNext() ? reader.next() : null);
+    }
+  }
+
+  @When("^we count the documents of a stream of (\\d+) objects$")
+  public void weCountTheDocumentsOfAStream(int count) throws Throwable {
+    Reader stream = new Reader() {
+      private final char[] document = "{\"foo\": [1, 2, 3]}\n".toCharArray();
+      private final long total = (long)count * document.length;
+      private long position;
+
+      @Override
+      public int read(char[] buffer, int offset, int length) {
+        if (position == total) {
+          return -1;
+        }
+        int read = (int)Math.min(length, total - position);
+        for (int i = 0; i < read; i++) {
+          buffer[offset + i] = document[(int)(position++ % document.length)];
+        }
+        return read;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+
+    int documents = 0;
+    try (JSONDocumentReader reader = new JSONDocumentReader(stream)) {
+      while (reader.hasNext()) {
+        reader.next();
+        documents++;
+      }
+    }
+    JSONSteps.setStringValue(Integer.toString(documents));
+  }
+
+  private static class TokenIteratorParser extends JSONLLParser {
+    public JSONValue parseTokens(Iterator<Token> tokenizer) throws Throwable {
+      // hides the token stream of the tokenizer, so only its tokens are used
+      return parse(new Iterator<Token>() {
+        @Override
+        public boolean hasNext() {
+          return tokenizer.hasNext();
+        }
+
+        @Override
+        public Token next() {
+          return tokenizer.next();
+        }
+      });
+    }
+  }
+
+  private static class RecordingHandler implements JSONHandler {
+    private final StringBuilder builder = new StringBuilder();
+
+    @Override
+    public void startObject() {
+      append("startObject");
+    }
+
+    @Override
+    public void endObject() {
+      append("endObject");
+    }
+
+    @Override
+    public void startArray() {
+      append("startArray");
+    }
+
+    @Override
+    public void endArray() {
+      append("endArray");
+    }
+
+    @Override
+    public void key(CharSequence name) {
+      append("key:").append(name);
+    }
+
+    @Override
+    public void stringValue(CharSequence value) {
+      append("stringValue:").append(value);
+    }
+
+    @Override
+    public void numberValue(CharSequence value) {
+      append("numberValue:").append(value);
+    }
+
+    @Override
+    public void booleanValue(boolean value) {
+      append("booleanValue:").append(value);
+    }
+
+    @Override
+    public void nullValue() {
+      append("nullValue");
+    }
+
+    private StringBuilder append(String callback) {
+      if (builder.length() > 0) {
+        builder.append(' ');
+      }
+      return builder.append(callback);
+    }
+  }
+
+  private void appendEvent(StringBuilder builder, JSONEventReader reader) {
+    if (builder.length() > 0) {
+      builder.append(' ');
+    }
+    builder.append(reader.getEvent());
+
+    switch (reader.getEvent()) {
+      case FIELD_NAME:
+      case VALUE_STRING:
+        builder.append(':').append(reader.getString());
+        break;
+      case VALUE_NUMBER:
+        builder.append(':').append(reader.getNumber().getValue());
+        break;
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        builder.append(':').append(reader.getBoolean());
+        break;
+      default:
+        break;
+    }
+  }
+}
@@ -48,6 +48,16 @@ public class JSONManipulationSteps {
     JSONSteps.setJSONValue(jsonValue);
   }
 
+  @Given("^we create the JSON number (.+)$")
+  public void weCreateTheJSONNumber(String value) throws Throwable {
+    try {
+      JSONValue jsonValue = new JSONNumber(value);
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
   @Given("^we have the JSON string \"(.*)\"$")
   public void weHaveAJSONString(String value) throws Throwable {
     JSONValue jsonValue = new JSONString(value);
@@ -118,4 +128,4 @@ public class JSONManipulationSteps {
     JSONArray jsonArray = (JSONArray) JSONSteps.getJSONValue();
     jsonArray.add(new JSONArray());
   }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -31,6 +31,7 @@ public class JSONSteps {
   private static List<Exception> exceptions;
   private static JSONValue jsonValue;
   private static String stringValue;
+  private static byte[] bytesValue;
 
   public static boolean isExpectingExceptions() {
     return isExpectingExceptions;
@@ -71,6 +72,14 @@ public class JSONSteps {
     stringValue = value;
   }
 
+  public static byte[] getBytesValue() {
+    return bytesValue;
+  }
+
+  public static void setBytesValue(byte[] value) {
+    bytesValue = value;
+  }
+
   @Given("^we expect an exception$")
   public void weExpectAnException() throws Throwable {
     setExpectingExceptions(true);
@@ -16,6 +16,17 @@
 
 package de.dcoding.json;
 
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.When;
 
@@ -163,6 +174,30 @@ public class JSONToTextSteps {
     JSONSteps.setStringValue(stringValue);
   }
 
+  @When("^we encode it as UTF-8 bytes$")
+  public void weEncodeItAsUTF8Bytes() throws Throwable {
+    JSONValue jsonValue = JSONSteps.getJSONValue();
+    byte[] bytes = new JSONUTF8Encoder().toByteArray(jsonValue);
+    JSONSteps.setStringValue(new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  @When("^we encode it (\\d+) times as UTF-8 bytes with one encoder$")
+  public void weEncodeItAsUTF8BytesWithOneEncoder(int times) throws Throwable {
+    JSONValue jsonValue = JSONSteps.getJSONValue();
+    ByteBuffer expectedBytes = ByteBuffer.wrap(JSON.encode(jsonValue).getBytes(StandardCharsets.UTF_8));
+    JSONUTF8Encoder encoder = new JSONUTF8Encoder();
+
+    int equal = 0;
+    for (int i = 0; i < times; i++) {
+      // alternate with a small value to reuse the grown array
+      if (encoder.encode(jsonValue).equals(expectedBytes)) {
+        equal++;
+      }
+      encoder.encode(new JSONArray());
+    }
+    JSONSteps.setStringValue(equal + " equal results");
+  }
+
   @When("^we convert it to a String$")
   public void weConvertItToAString() throws Throwable {
     JSONValue jsonValue = JSONSteps.getJSONValue();
@@ -172,9 +207,111 @@ public class JSONToTextSteps {
 
   @When("^we convert it to a formatted String$")
   public void weConvertItToAFormattedString() throws Throwable {
-    JSONFormatter formatter = new JSONFormatter();
-    JSONFormatterSettings settings = formatter.getSettings();
+    JSONFormatterSettings settings = new JSONFormatterSettings();
+    applySettings(settings);
+    JSONFormatter formatter = new JSONFormatter(settings);
+
+    JSONValue jsonValue = JSONSteps.getJSONValue();
+    String stringValue = formatter.toString(jsonValue);
+    JSONSteps.setStringValue(stringValue);
+  }
+
+  @When("^we write it formatted to (a writer|an output stream)$")
+  public void weWriteItFormattedTo(String sink) throws Throwable {
+    JSONFormatterSettings settings = new JSONFormatterSettings();
+    applySettings(settings);
+    JSONFormatter formatter = new JSONFormatter(settings);
+
+    JSONValue jsonValue = JSONSteps.getJSONValue();
+    String stringValue;
+    if (sink.equals("a writer")) {
+      StringWriter writer = new StringWriter();
+      formatter.write(jsonValue, writer);
+      stringValue = writer.toString();
+    } else {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      formatter.write(jsonValue, stream);
+      stringValue = new String(stream.toByteArray(), StandardCharsets.UTF_8);
+    }
+    JSONSteps.setStringValue(stringValue);
+  }
+
+  @When("^we convert it to a formatted String again with indention of (\\d+) spaces$")
+  public void weConvertItToAFormattedStringAgainWithIndention(int count) throws Throwable {
+    JSONFormatterSettings settings = new JSONFormatterSettings();
+    applySettings(settings);
+    JSONFormatter formatter = new JSONFormatter(settings);
+
+    JSONValue jsonValue = JSONSteps.getJSONValue();
+    formatter.toString(jsonValue);
+    settings.setIndentionString(getSpaces(count));
+    formatter.setSettings(settings);
+    // the formatter keeps a snapshot, so changing the settings afterwards has no effect
+    settings.setIndentionString(getSpaces(count + 1));
+    String stringValue = formatter.toString(jsonValue);
+    JSONSteps.setStringValue(stringValue);
+  }
+
+  @When("^we convert it to a formatted String with frozen settings$")
+  public void weConvertItToAFormattedStringWithFrozenSettings() throws Throwable {
+    JSONFormatterSettings settings = new JSONFormatterSettings();
+    applySettings(settings);
+    JSONFormatter formatter = new JSONFormatter(settings.freeze());
+
+    try {
+      formatter.getSettings().setIndentionString("    ");
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+
+    JSONValue jsonValue = JSONSteps.getJSONValue();
+    String stringValue = formatter.toString(jsonValue);
+    JSONSteps.setStringValue(stringValue);
+  }
 
+  @When("^we convert it to a formatted String in (\\d+) threads (\\d+) times each$")
+  public void weConvertItToAFormattedStringConcurrently(int threads, int times) throws Throwable {
+    JSONValue jsonValue = JSONSteps.getJSONValue();
+    JSONFormatterSettings settings = new JSONFormatterSettings();
+    applySettings(settings);
+    JSONFormatter formatter = new JSONFormatter(settings);
+    String expectedText = new JSONFormatter(new JSONFormatterSettings(settings)).toString(jsonValue);
+    String expectedPlainText = new JSONFormatter().toString(jsonValue);
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> futures = new ArrayList<>();
+
+    try {
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          int consistent = 0;
+          for (int j = 0; j < times; j++) {
+            // the configured formatter and the default formatter of toString() are shared
+            if (formatter.toString(jsonValue).equals(expectedText)) {
+              consistent++;
+            }
+            if (jsonValue.toString().equals(expectedPlainText)) {
+              consistent++;
+            }
+          }
+          return consistent;
+        }));
+      }
+      start.countDown();
+
+      int consistent = 0;
+      for (Future<Integer> future : futures) {
+        consistent += future.get();
+      }
+      JSONSteps.setStringValue(consistent + " consistent results");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private void applySettings(JSONFormatterSettings settings) {
     settings.setAddNewlineAfterObjectBegin(addNewlineAfterObjectBegin);
     settings.setAddSpaceAfterObjectBegin(addSpaceAfterObjectBegin);
     settings.setAddNewlineBeforeObjectEnd(addNewlineBeforeObjectEnd);
@@ -193,9 +330,5 @@ public class JSONToTextSteps {
     settings.setAddSpaceAfterValueSeparator(addSpaceAfterValueSeparator);
     settings.setNewlineString(newlineString);
     settings.setIndentionString(indentionString);
-
-    JSONValue jsonValue = JSONSteps.getJSONValue();
-    String stringValue = formatter.toString(jsonValue);
-    JSONSteps.setStringValue(stringValue);
   }
 }
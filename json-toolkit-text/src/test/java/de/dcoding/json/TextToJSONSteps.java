@@ -16,7 +16,33 @@
 
 package de.dcoding.json;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.dcoding.json.parsers.JSONHandler;
 import de.dcoding.json.parsers.JSONLLParser;
+import de.dcoding.json.parsers.JSONTokenizer;
+import de.dcoding.json.parsers.JSONUTF8Tokenizer;
+import de.dcoding.json.tokens.JSONNullToken;
+import de.dcoding.json.tokens.JSONWhitespaceToken;
+import de.dcoding.parsers.LLParser;
+import de.dcoding.parsers.ParserException;
+import de.dcoding.parsers.Token;
 
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.When;
@@ -74,6 +100,117 @@ public class TextToJSONSteps {
     }
   }
 
+  @Given("^a JSON array of (\\d+) strings with (\\d+) characters each$")
+  public void aJSONArrayOfStringsWithCharactersEach(int count, int length) throws Throwable {
+    StringBuilder builder = new StringBuilder("[");
+
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append('"');
+      for (int j = 0; j < length; j++) {
+        builder.append((char)('a' + (j % 26)));
+      }
+      builder.append('"');
+    }
+
+    builder.append("]");
+    JSONSteps.setStringValue(builder.toString());
+  }
+
+  @Given("^a JSON array of (\\d+) strings with an unpaired surrogate$")
+  public void aJSONArrayOfStringsWithAnUnpairedSurrogate(int count) throws Throwable {
+    StringBuilder builder = new StringBuilder("[");
+
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append('"').append(i).append((char)(0xD800 + i)).append('"');
+    }
+
+    builder.append("]");
+    JSONSteps.setStringValue(builder.toString());
+  }
+
+  @Given("^a JSON array of (\\d+) records$")
+  public void aJSONArrayOfRecords(int count) throws Throwable {
+    StringBuilder builder = new StringBuilder("[");
+
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        builder.append(",\n  ");
+      }
+      builder.append("{\"id\": ").append(i).append(", \"name\": \"record \\\"").append(i).append("\\\"\", ");
+      builder.append("\"values\": [").append(i * 0.5).append(", true, null, {\"nested\": []}]}");
+    }
+
+    builder.append("]");
+    JSONSteps.setStringValue(builder.toString());
+  }
+
+  @Given("^a JSON array of (\\d+) numbers$")
+  public void aJSONArrayOfNumbers(int count) throws Throwable {
+    StringBuilder builder = new StringBuilder("[");
+
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append(i);
+    }
+
+    builder.append("]");
+    JSONSteps.setStringValue(builder.toString());
+  }
+
+  @Given("^the lines$")
+  public void theLines(String value) throws Throwable {
+    JSONSteps.setStringValue(value);
+  }
+
+  @Given("^(\\d+) JSON lines with every (\\d+)th line malformed$")
+  public void jsonLinesWithMalformedLines(int count, int interval) throws Throwable {
+    StringBuilder builder = new StringBuilder();
+
+    for (int i = 1; i <= count; i++) {
+      builder.append("{\"line\": ").append(i);
+      if ((i % interval) == 0) {
+        builder.append(',');
+      }
+      builder.append("}\n");
+    }
+
+    JSONSteps.setStringValue(builder.toString());
+  }
+
+  @Given("^(\\d+) nested arrays$")
+  public void nestedArrays(int depth) throws Throwable {
+    StringBuilder builder = new StringBuilder();
+
+    for (int i = 0; i < depth; i++) {
+      builder.append("[");
+    }
+    for (int i = 0; i < depth; i++) {
+      builder.append("]");
+    }
+
+    JSONSteps.setStringValue(builder.toString());
+  }
+
+  @Given("^the bytes \"([0-9A-F ]*)\"$")
+  public void theBytes(String value) throws Throwable {
+    String[] hexValues = value.trim().split(" +");
+    byte[] bytes = new byte[hexValues.length];
+
+    for (int i = 0; i < hexValues.length; i++) {
+      bytes[i] = (byte)Integer.parseInt(hexValues[i], 16);
+    }
+
+    JSONSteps.setBytesValue(bytes);
+  }
+
   @When("^we parse it$")
   public void weParseIt() throws Throwable {
     JSONLLParser parser = new JSONLLParser();
@@ -86,6 +223,158 @@ public class TextToJSONSteps {
     }
   }
 
+  @When("^we parse it with a maximum depth of (\\d+)$")
+  public void weParseItWithAMaximumDepthOf(int maxDepth) throws Throwable {
+    JSONLLParser parser = new JSONLLParser(maxDepth);
+    String stringValue = JSONSteps.getStringValue();
+    try {
+      JSONValue jsonValue = parser.parse(stringValue);
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we parse it (without caching keys|caching string values)$")
+  public void weParseItWithCaching(String caching) throws Throwable {
+    JSONLLParser parser = new JSONLLParser();
+    parser.setCachingKeys(!"without caching keys".equals(caching));
+    parser.setCachingStringValues("caching string values".equals(caching));
+    String stringValue = JSONSteps.getStringValue();
+    try {
+      JSONValue jsonValue = parser.parse(stringValue);
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we parse it lazily$")
+  public void weParseItLazily() throws Throwable {
+    JSONLLParser parser = new JSONLLParser();
+    String stringValue = JSONSteps.getStringValue();
+    try {
+      JSONValue jsonValue = parser.parseLazily(stringValue);
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we access all of its values$")
+  public void weAccessAllOfItsValues() throws Throwable {
+    try {
+      JSON.encode(JSONSteps.getJSONValue());
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we parse it from a reader$")
+  public void weParseItFromAReader() throws Throwable {
+    JSONLLParser parser = new JSONLLParser();
+    String stringValue = JSONSteps.getStringValue();
+    try {
+      JSONValue jsonValue = parser.parse(new StringReader(stringValue));
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we parse it as UTF-8 bytes$")
+  public void weParseItAsUTF8Bytes() throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    JSONSteps.setBytesValue(stringValue.getBytes(Charset.forName("UTF-8")));
+    weParseTheBytes();
+  }
+
+  @When("^we parse the bytes$")
+  public void weParseTheBytes() throws Throwable {
+    JSONLLParser parser = new JSONLLParser();
+    byte[] bytesValue = JSONSteps.getBytesValue();
+    try {
+      JSONValue jsonValue = parser.parse(bytesValue);
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we decode it from (UTF-8|UTF-16BE|UTF-16LE|UTF-32BE|UTF-32LE) bytes( with byte order mark)?$")
+  public void weDecodeItFromBytes(String charsetName, String byteOrderMark) throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    if (byteOrderMark != null) {
+      stringValue = "\uFEFF" + stringValue;
+    }
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    stream.write(stringValue.getBytes(Charset.forName(charsetName)));
+    InputStream input = new ByteArrayInputStream(stream.toByteArray());
+    try {
+      JSONValue jsonValue = JSON.decode(input);
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we decode it from a byte buffer$")
+  public void weDecodeItFromAByteBuffer() throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    ByteBuffer buffer = ByteBuffer.wrap(stringValue.getBytes(Charset.forName("UTF-8")));
+    try {
+      JSONValue jsonValue = JSON.decode(buffer);
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we decode it from a file$")
+  public void weDecodeItFromAFile() throws Throwable {
+    Path path = writeToTemporaryFile();
+    try {
+      JSONValue jsonValue = JSON.decode(path);
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @When("^we parse it from a file mapped in windows of (\\d+) bytes$")
+  public void weParseItFromAFileMappedInWindowsOfBytes(int windowSize) throws Throwable {
+    Path path = writeToTemporaryFile();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      JSONValue jsonValue = new FileChannelParser().parse(channel, windowSize);
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  private Path writeToTemporaryFile() throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    Path path = Files.createTempFile("json-toolkit", ".json");
+    Files.write(path, stringValue.getBytes(Charset.forName("UTF-8")));
+    return path;
+  }
+
+  private static class FileChannelParser extends JSONLLParser {
+    public JSONValue parse(FileChannel channel, int windowSize) throws Throwable {
+      return parse(new JSONUTF8Tokenizer(channel, windowSize));
+    }
+
+    @Override
+    protected boolean isReadingTokenStream() {
+      return true;
+    }
+  }
+
   @When("^we decode it$")
   public void weDecodeIt() throws Throwable {
     String stringValue = JSONSteps.getStringValue();
@@ -96,4 +385,220 @@ public class TextToJSONSteps {
       JSONSteps.add(e);
     }
   }
+
+  @When("^we decode (it|its UTF-8 bytes) in parallel with (\\d+) threads$")
+  public void weDecodeItInParallelWithThreads(String source, int parallelism) throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    try {
+      JSONValue jsonValue;
+      if (source.equals("it")) {
+        jsonValue = JSON.decodeParallel(stringValue, parallelism);
+      } else {
+        jsonValue = JSON.decodeParallel(stringValue.getBytes(Charset.forName("UTF-8")), parallelism);
+      }
+      JSONSteps.setJSONValue(jsonValue);
+    } catch (Exception e) {
+      JSONSteps.add(e);
+    }
+  }
+
+  @When("^we parse it with a subclass filtering the relevant tokens$")
+  public void weParseItWithASubclassFilteringTheRelevantTokens() throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    RelevanceCountingParser parser = new RelevanceCountingParser();
+
+    try {
+      JSONValue jsonValue = parser.parse(stringValue);
+      JSONSteps.setStringValue(jsonValue + " from " + parser.relevantTokens + " relevant tokens");
+    } catch (ParserException e) {
+      JSONSteps.setStringValue("error: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Parser counting the relevant tokens and rejecting null literals
+   */
+  private static class RelevanceCountingParser extends JSONLLParser {
+    private int relevantTokens;
+
+    @Override
+    protected boolean isRelevantToken(Token token) throws ParserException {
+      if (token instanceof JSONNullToken) {
+        throw new ParserException("Null is not supported");
+      }
+
+      boolean relevant = super.isRelevantToken(token);
+      if (relevant) {
+        relevantTokens++;
+      }
+      return relevant;
+    }
+  }
+
+  @When("^we parse it with a subclass counting the consumed tokens$")
+  public void weParseItWithASubclassCountingTheConsumedTokens() throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    ConsumptionCountingParser parser = new ConsumptionCountingParser();
+
+    try {
+      JSONValue jsonValue = parser.parse(stringValue);
+      JSONSteps.setStringValue(jsonValue + " after " + parser.consumedTokens + " consumed tokens");
+    } catch (ParserException e) {
+      JSONSteps.setStringValue("error: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Parser counting the calls of nextToken()
+   */
+  private static class ConsumptionCountingParser extends JSONLLParser {
+    private int consumedTokens;
+
+    @Override
+    protected void nextToken() throws ParserException {
+      consumedTokens++;
+      super.nextToken();
+    }
+  }
+
+  @When("^we count its tokens with a parser reading the lookahead field while another thread parses \"([^\"]*)\"$")
+  public void weCountItsTokensWhileAnotherThreadParses(String otherValue) throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    LookaheadFieldParser parser = new LookaheadFieldParser();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+      // the other thread parses while the first parsing process is paused after its first token
+      parser.pause = () -> {
+        try {
+          executor.submit(() -> parser.parse(otherValue)).get();
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      };
+      JSONSteps.setStringValue(parser.parse(stringValue));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @When("^we count its tokens with a parser reading the lookahead field( from a reader)?$")
+  public void weCountItsTokensWithAParserReadingTheLookaheadField(String reader) throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    LookaheadFieldParser parser = new LookaheadFieldParser();
+    if (reader != null) {
+      JSONSteps.setStringValue(parser.parse(new StringReader(stringValue)));
+    } else {
+      JSONSteps.setStringValue(parser.parse(stringValue));
+    }
+  }
+
+  /**
+   * Parser implementing the original subclass contract, reading the tokens from the protected lookahead array
+   */
+  @SuppressWarnings("deprecation")
+  private static class LookaheadFieldParser extends LLParser<String> {
+    private volatile Runnable pause;
+
+    private LookaheadFieldParser() {
+      super(2);
+    }
+
+    @Override
+    protected Iterator<? extends Token> getTokenizer(String input) {
+      return new JSONTokenizer(input);
+    }
+
+    @Override
+    protected boolean isRelevantToken(Token token) {
+      return !(token instanceof JSONWhitespaceToken);
+    }
+
+    @Override
+    protected String processStartSymbol() throws ParserException {
+      TokenState state = getTokenState();
+      int count = 0;
+      int followed = 0;
+
+      // only the tokens read by the field are counted, a parsing process not assigning it counts none
+      while (state.getLookahead(0) != null) {
+        if (lookahead[0] == state.getLookahead(0)) {
+          count++;
+        }
+        if ((lookahead[1] != null) && (lookahead[1] == state.getLookahead(1))) {
+          followed++;
+        }
+        state.nextToken();
+
+        Runnable action = pause;
+        if (action != null) {
+          pause = null;
+          action.run();
+        }
+      }
+
+      return count + " tokens, " + followed + " followed by another";
+    }
+  }
+
+  @When("^we decode it with the default parser in (\\d+) threads (\\d+) times each$")
+  public void weDecodeItWithTheDefaultParserConcurrently(int threads, int times) throws Throwable {
+    String stringValue = JSONSteps.getStringValue();
+    String expectedText = new JSONLLParser().parse(stringValue).toString();
+    int expectedCallbacks = countCallbacks(new JSONLLParser(), stringValue);
+
+    JSON.setParser(null);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> futures = new ArrayList<>();
+
+    try {
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          int consistent = 0;
+          for (int j = 0; j < times; j++) {
+            // decoding and parsing with a handler share the default parser
+            if (JSON.decode(stringValue).toString().equals(expectedText)) {
+              consistent++;
+            }
+            if (countCallbacks(JSON.getParser(), stringValue) == expectedCallbacks) {
+              consistent++;
+            }
+          }
+          return consistent;
+        }));
+      }
+      start.countDown();
+
+      int consistent = 0;
+      for (Future<Integer> future : futures) {
+        consistent += future.get();
+      }
+      JSONSteps.setStringValue(consistent + " consistent results");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static int countCallbacks(Object parser, String text) throws Exception {
+    int[] count = new int[1];
+    ((JSONLLParser)parser).parse(text, new JSONHandler() {
+      @Override
+      public void key(CharSequence name) {
+        count[0] += name.length();
+      }
+
+      @Override
+      public void stringValue(CharSequence value) {
+        count[0] += value.length();
+      }
+
+      @Override
+      public void endObject() {
+        count[0]++;
+      }
+    });
+    return count[0];
+  }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2022 d-coding GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dcoding.json.parsers;
+
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import de.dcoding.json.JSON;
+import de.dcoding.parsers.ParserException;
+
+import io.cucumber.java.en.Then;
+
+/**
+ * Step definitions for the package private structural index of UTF-8 encoded bytes
+ *
+ * @since  1.1
+ */
+public class StructuralIndexSteps {
+  private static final String[] FRAGMENTS = {
+    "a", "b\u00E4r", "\u65E5\u672C", ",", ":", "[", "]", "{", "}", " ", "\\\"", "\\\\", "\\\\\\\"", "\\u005B", "\\n"
+  };
+
+  @Then("^we expect (\\d+) generated arrays with seed (\\d+) to be divided by the structural index like by a character scan$")
+  public void weExpectGeneratedArraysToBeDividedLikeByACharacterScan(int count, long seed) throws Throwable {
+    Random random = new Random(seed);
+    for (int i = 0; i < count; i++) {
+      StringBuilder builder = new StringBuilder("[");
+      for (int j = 0, elements = random.nextInt(12); j < elements; j++) {
+        if (j > 0) {
+          builder.append(',').append(random.nextBoolean() ? " " : "");
+        }
+        appendValue(builder, random, 2);
+      }
+      builder.append(']');
+
+      String text = mutate(builder.toString(), random);
+      byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+      int[] expected = toByteOffsets(text, ParallelArrayParser.findBoundaries(text));
+      int[] actual = ParallelArrayParser.findBoundaries(bytes);
+      if (!Arrays.equals(expected, actual)) {
+        // a backslash outside of strings escapes a quotation mark for the index only
+        assertMalformed(text);
+      }
+    }
+  }
+
+  private static void assertMalformed(String text) {
+    try {
+      JSON.decode(text);
+    } catch (ParserException e) {
+      return;
+    }
+    fail("Malformed array expected: " + text);
+  }
+
+  private static void appendValue(StringBuilder builder, Random random, int depth) {
+    switch (random.nextInt((depth > 0) ? 5 : 3)) {
+      case 0:
+        builder.append(random.nextInt(100000));
+        break;
+      case 1:
+        builder.append("true");
+        break;
+      case 2:
+        // long enough to span blocks of the index
+        builder.append('"');
+        for (int i = 0, length = random.nextInt(40); i < length; i++) {
+          builder.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+        }
+        builder.append('"');
+        break;
+      case 3:
+        builder.append('[');
+        for (int i = 0, elements = random.nextInt(4); i < elements; i++) {
+          builder.append((i > 0) ? ", " : "");
+          appendValue(builder, random, depth - 1);
+        }
+        builder.append(']');
+        break;
+      default:
+        builder.append('{');
+        for (int i = 0, members = random.nextInt(4); i < members; i++) {
+          builder.append((i > 0) ? "," : "").append("\"k").append(i).append("\": ");
+          appendValue(builder, random, depth - 1);
+        }
+        builder.append('}');
+        break;
+    }
+  }
+
+  /**
+   * Leaves most arrays intact and breaks the others, so malformed arrays are rejected alike.
+   */
+  private static String mutate(String text, Random random) {
+    int position = random.nextInt(text.length() + 1);
+    switch (random.nextInt(8)) {
+      case 0:
+        return text.substring(0, position);
+      case 1:
+        return text.substring(0, position) + "\"" + text.substring(position);
+      case 2:
+        return text.substring(0, position) + "\\" + text.substring(position);
+      case 3:
+        return "  " + text + (random.nextBoolean() ? " 1" : "\n");
+      default:
+        return text;
+    }
+  }
+
+  private static int[] toByteOffsets(String text, int[] positions) {
+    if (positions == null) {
+      return null;
+    }
+
+    int[] offsets = new int[positions.length];
+    for (int i = 0; i < positions.length; i++) {
+      offsets[i] = text.substring(0, positions[i]).getBytes(StandardCharsets.UTF_8).length;
+    }
+    return offsets;
+  }
+}